@@ -0,0 +1,87 @@
+package net.ppekkungz.essentialUtils.bench;
+
+import net.ppekkungz.essentialUtils.features.vein.VeinMineFeature;
+import net.ppekkungz.essentialUtils.util.FortuneUtil;
+import net.ppekkungz.essentialUtils.util.LeafDropUtil;
+import net.ppekkungz.essentialUtils.util.Materials;
+import org.bukkit.Material;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-block material checks and drop rolls. Each invocation runs over a
+ * fixed array of inputs, the same for every run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class DropBenchmark {
+    private static final int LEAVES = 256;
+
+    @Param({"0", "3"})
+    public int fortune;
+
+    // Every block material, in enum order - what a scan may run into
+    private Material[] blocks;
+    private Material[] ores;
+
+    @Setup
+    public void setup() {
+        blocks = Arrays.stream(Material.values()).filter(Material::isBlock).toArray(Material[]::new);
+        ores = VeinMineFeature.getAllOres().toArray(new Material[0]);
+        Arrays.sort(ores);
+    }
+
+    @Benchmark
+    public int isLog() {
+        int n = 0;
+        for (Material m : blocks) {
+            if (Materials.isLog(m, true)) n++;
+        }
+        return n;
+    }
+
+    /**
+     * Every ore against every ore, as a vein scan compares neighbors.
+     */
+    @Benchmark
+    public int isSameOreType() {
+        int n = 0;
+        for (Material a : ores) {
+            for (Material b : ores) {
+                if (VeinMineFeature.isSameOreType(a, b)) n++;
+            }
+        }
+        return n;
+    }
+
+    @Benchmark
+    public void calculateDropCount(Blackhole bh) {
+        for (Material ore : ores) {
+            bh.consume(FortuneUtil.calculateDropCount(ore, fortune));
+        }
+    }
+
+    @Benchmark
+    public void getOreDrop(Blackhole bh) {
+        for (Material ore : ores) {
+            bh.consume(FortuneUtil.getOreDrop(ore));
+        }
+    }
+
+    /**
+     * Leaf drop rolls for a large canopy.
+     */
+    @Benchmark
+    @OperationsPerInvocation(LEAVES)
+    public LeafDropUtil.TreeFellerResult addLeafDrops() {
+        LeafDropUtil.TreeFellerResult result = new LeafDropUtil.TreeFellerResult();
+        for (int i = 0; i < LEAVES; i++) {
+            result.addLeafDrops(LeafDropUtil.TreeType.OAK);
+        }
+        return result;
+    }
+}
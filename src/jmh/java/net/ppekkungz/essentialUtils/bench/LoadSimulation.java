@@ -0,0 +1,597 @@
+package net.ppekkungz.essentialUtils.bench;
+
+import net.ppekkungz.essentialUtils.config.PluginConfig;
+import net.ppekkungz.essentialUtils.features.Feature;
+import net.ppekkungz.essentialUtils.features.farm.AutoFarmFeature;
+import net.ppekkungz.essentialUtils.features.tree.TreeAssistFeature;
+import net.ppekkungz.essentialUtils.features.vein.VeinMineFeature;
+import net.ppekkungz.essentialUtils.listener.ActivationListener;
+import net.ppekkungz.essentialUtils.util.FortuneUtil;
+import net.ppekkungz.essentialUtils.util.LeafDropUtil;
+import net.ppekkungz.essentialUtils.work.FairShareScheduler;
+import net.ppekkungz.essentialUtils.work.Job;
+import net.ppekkungz.essentialUtils.work.RegionPartition;
+import net.ppekkungz.essentialUtils.work.TickBudgetController;
+import net.ppekkungz.essentialUtils.work.WorkBatch;
+import net.ppekkungz.essentialUtils.work.WorkItem;
+import net.ppekkungz.essentialUtils.work.WorkQueue;
+import net.ppekkungz.essentialUtils.world.KeyBuffer;
+import net.ppekkungz.essentialUtils.world.MemoryWorld;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Headless load simulation: virtual players fell trees, mine veins and
+ * harvest fields at random, and the work engine runs their jobs tick by
+ * tick against in-memory terrain.
+ *
+ * Triggers run the real feature scans and build the same work batches as
+ * {@link ActivationListener}. Each tick drives the real {@link WorkQueue},
+ * {@link FairShareScheduler} and {@link TickBudgetController} with a
+ * simulated clock, budgeting partitions the way the work loop does. The
+ * block handlers are replicated with the same reads, writes and drop rolls
+ * but without ItemStacks and loot tables, which need a server.
+ *
+ * That covers the plain work loop only: bulk apply, drop coalescing,
+ * inventory delivery, the journal, streamed and async scans and
+ * pre-scanning are not modeled, nor are protection plugins, tool
+ * preemption or the lagging-region cancel. A config with any of those
+ * options on is refused rather than reported as if it were measured;
+ * {@code --config=<file>} checks a server's config.yml.
+ *
+ * Latency is trigger to last item; since trees are staggered a block a
+ * tick it grows with tree size even when idle. Lag is how many ticks past
+ * its due tick a job's latest item ran, which only grows under load.
+ * Jobs still running at the end count with what they have so far.
+ *
+ * Every partition runs on this one thread, as on Paper. On Folia they
+ * spread over region threads, so the per-tick total is a worst case.
+ *
+ * <pre>
+ * ./gradlew simulate -Psim="--players=300 --rate=3"
+ * ./gradlew simulate -Psim="--sweep=tree --budgetMs=5"
+ * ./gradlew simulate -Psim="--config=server/plugins/EssentialUtils/config.yml"
+ * </pre>
+ */
+public final class LoadSimulation {
+    private static final WorkItem.FeatureTag[] FEATURES = {
+        WorkItem.FeatureTag.TREE, WorkItem.FeatureTag.VEIN, WorkItem.FeatureTag.FARM
+    };
+    private static final Set<Material> TREE_SOIL = EnumSet.of(Material.DIRT, Material.GRASS_BLOCK,
+        Material.PODZOL, Material.ROOTED_DIRT, Material.MOSS_BLOCK, Material.MUD, Material.MUDDY_MANGROVE_ROOTS);
+
+    /**
+     * Run settings, from {@code --key=value} arguments.
+     */
+    record Settings(int players, int seconds, double rate, double[] mix, String[] trees,
+                    String budget, int blocksPerTick, int globalBlocksPerTick, int maxJobs,
+                    double budgetMs, int maxLagTicks, long seed, String configFile) {
+
+        static Settings parse(Map<String, String> a) {
+            double[] mix = new double[FEATURES.length];
+            for (String part : a.getOrDefault("mix", "tree=1,vein=1,farm=1").split(",")) {
+                String[] kv = part.split("=");
+                mix[WorkItem.FeatureTag.valueOf(kv[0].trim().toUpperCase()).ordinal()] = Double.parseDouble(kv[1]);
+            }
+            return new Settings(
+                Integer.parseInt(a.getOrDefault("players", "200")),
+                Integer.parseInt(a.getOrDefault("seconds", "60")),
+                Double.parseDouble(a.getOrDefault("rate", "2")),
+                mix,
+                a.getOrDefault("trees", "oak,jungle,mangrove").split(","),
+                a.getOrDefault("budget", "blocks"),
+                Integer.parseInt(a.getOrDefault("blocksPerTick", "32")),
+                Integer.parseInt(a.getOrDefault("globalBlocksPerTick", "256")),
+                Integer.parseInt(a.getOrDefault("maxJobs", "4")),
+                Double.parseDouble(a.getOrDefault("budgetMs", "5")),
+                Integer.parseInt(a.getOrDefault("maxLag", "20")),
+                Long.parseLong(a.getOrDefault("seed", "1")),
+                a.get("config"));
+        }
+
+        Settings withPlayers(int n) {
+            return new Settings(n, seconds, rate, mix, trees, budget, blocksPerTick,
+                globalBlocksPerTick, maxJobs, budgetMs, maxLagTicks, seed, configFile);
+        }
+
+        /**
+         * The plugin config to run with: a server's config.yml when given,
+         * otherwise defaults with everything the simulation doesn't model
+         * turned off. The budget and job limit settings always come from the
+         * arguments.
+         */
+        PluginConfig config() {
+            YamlConfiguration yaml;
+            if (configFile != null) {
+                yaml = YamlConfiguration.loadConfiguration(new File(configFile));
+            } else {
+                yaml = new YamlConfiguration();
+                yaml.set("modules.treeFeller.maxBlocks", 2048);
+                yaml.set("modules.veinMiner.maxOres", 256);
+                yaml.set("performance.bulkApply", false);
+                yaml.set("performance.coalesceDrops", false);
+                yaml.set("performance.journal.enabled", false);
+            }
+            yaml.set("performance.budgetMode", budget);
+            yaml.set("performance.blocksPerTick", blocksPerTick);
+            yaml.set("performance.globalBlocksPerTick", globalBlocksPerTick);
+            yaml.set("performance.maxJobsPerPlayer", maxJobs);
+
+            PluginConfig cfg = new PluginConfig(yaml);
+            List<String> off = unmodeled(cfg);
+            if (!off.isEmpty()) {
+                throw new IllegalArgumentException("The load simulation doesn't model "
+                    + String.join(", ", off) + "; turn them off to simulate this config");
+            }
+            return cfg;
+        }
+
+        /**
+         * Enabled options the simulated work loop doesn't reproduce, so its
+         * numbers would not describe a server running them.
+         */
+        static List<String> unmodeled(PluginConfig cfg) {
+            List<String> off = new ArrayList<>();
+            if (cfg.bulkApply()) off.add("performance.bulkApply");
+            if (cfg.coalesceDrops()) off.add("performance.coalesceDrops");
+            if (cfg.journalEnabled()) off.add("performance.journal.enabled");
+            if (cfg.stream()) off.add("performance.stream.enabled");
+            if (cfg.asyncScan()) off.add("performance.asyncScan.enabled");
+            if (cfg.preScan()) off.add("performance.preScan.enabled");
+            if (cfg.treeFellerDeliverToInventory()) off.add("modules.treeFeller.deliverToInventory");
+            if (cfg.veinMinerDeliverToInventory()) off.add("modules.veinMiner.deliverToInventory");
+            if (cfg.autoFarmDeliverToInventory()) off.add("modules.autoFarm.deliverToInventory");
+            return off;
+        }
+    }
+
+    private static final class SimPlayer {
+        final RegionPartition.Key key;
+        final WorkQueue queue = new WorkQueue();
+        int jobs;
+
+        SimPlayer(int id) {
+            key = new RegionPartition.Key(new UUID(0, id), new UUID(0, 0), id, 0);
+        }
+    }
+
+    private static final class SimJob {
+        final SimPlayer player;
+        final MemoryWorld world;
+        final long startTick;
+        int remaining;
+        long maxLag;
+
+        SimJob(SimPlayer player, MemoryWorld world, long startTick) {
+            this.player = player;
+            this.world = world;
+            this.startTick = startTick;
+        }
+    }
+
+    private final Settings s;
+    private final PluginConfig cfg;
+    private final Random random;
+    private final TickBudgetController controller;
+    private final FairShareScheduler scheduler;
+    private final TreeAssistFeature tree;
+    private final VeinMineFeature vein;
+    private final AutoFarmFeature farm;
+
+    private final List<SimPlayer> players = new ArrayList<>();
+    private final Map<Job, SimJob> jobs = new IdentityHashMap<>();
+
+    // Results
+    private final long[] tickNanos;
+    private final long[][] collectNanos = new long[FEATURES.length][];
+    private final int[] collectCount = new int[FEATURES.length];
+    private final List<List<Long>> latencies = new ArrayList<>();
+    private final List<List<Long>> lags = new ArrayList<>();
+    private final int[] started = new int[FEATURES.length];
+    private final int[] unfinished = new int[FEATURES.length];
+    private int refused, empty;
+    private long processed;
+    private long queueDepthSum, queueDepthMax, activeJobsSum, activeJobsMax;
+    private long heapBaseline, heapPeak;
+    private long wallNanos;
+
+    LoadSimulation(Settings s) {
+        this.s = s;
+        this.cfg = s.config();
+        this.random = new Random(s.seed);
+        this.controller = new TickBudgetController(null, cfg);
+        this.scheduler = new FairShareScheduler(null, cfg, controller);
+        this.tree = new TreeAssistFeature(cfg);
+        this.vein = new VeinMineFeature(cfg);
+        this.farm = new AutoFarmFeature(cfg);
+        this.tickNanos = new long[s.seconds * 20];
+        for (int i = 0; i < FEATURES.length; i++) {
+            collectNanos[i] = new long[64];
+            latencies.add(new ArrayList<>());
+            lags.add(new ArrayList<>());
+        }
+        for (int i = 0; i < s.players; i++) {
+            players.add(new SimPlayer(i));
+        }
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> a = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) continue;
+            int eq = arg.indexOf('=');
+            a.put(eq < 0 ? arg.substring(2) : arg.substring(2, eq), eq < 0 ? "true" : arg.substring(eq + 1));
+        }
+        Settings s = Settings.parse(a);
+
+        if (a.containsKey("sweep")) {
+            sweep(s, WorkItem.FeatureTag.valueOf(a.get("sweep").toUpperCase()));
+        } else {
+            LoadSimulation sim = new LoadSimulation(s);
+            sim.run();
+            sim.report();
+        }
+    }
+
+    // ==================== RUN ====================
+
+    void run() {
+        System.gc();
+        Runtime rt = Runtime.getRuntime();
+        heapBaseline = rt.totalMemory() - rt.freeMemory();
+        heapPeak = heapBaseline;
+
+        // Per-tick trigger chance; 0 means each player starts a new job as soon as it has none
+        double chance = s.rate / (60 * 20);
+        long wall = System.nanoTime();
+        for (int t = 0; t < tickNanos.length; t++) {
+            scheduler.advanceTick();
+            long now = scheduler.currentTick();
+
+            for (SimPlayer p : players) {
+                if (s.rate <= 0 ? p.jobs == 0 : random.nextDouble() < chance) {
+                    trigger(p, pickFeature(), now);
+                }
+            }
+
+            long start = System.nanoTime();
+            long depth = 0;
+            for (SimPlayer p : players) {
+                if (!p.queue.isEmpty()) tickQueue(p, now);
+                depth += p.queue.size();
+            }
+            tickNanos[t] = System.nanoTime() - start;
+
+            queueDepthSum += depth;
+            queueDepthMax = Math.max(queueDepthMax, depth);
+            activeJobsSum += jobs.size();
+            activeJobsMax = Math.max(activeJobsMax, jobs.size());
+            if (t % 20 == 0) {
+                heapPeak = Math.max(heapPeak, rt.totalMemory() - rt.freeMemory());
+            }
+        }
+        wallNanos = System.nanoTime() - wall;
+
+        // Jobs still running count with their age so far, or an overloaded run would look fast
+        long end = scheduler.currentTick();
+        for (Map.Entry<Job, SimJob> e : jobs.entrySet()) {
+            latencies.get(e.getKey().feature.ordinal()).add(end - e.getValue().startTick);
+            lags.get(e.getKey().feature.ordinal()).add(e.getValue().maxLag);
+            unfinished[e.getKey().feature.ordinal()]++;
+        }
+    }
+
+    private WorkItem.FeatureTag pickFeature() {
+        double total = Arrays.stream(s.mix).sum();
+        double roll = random.nextDouble() * total;
+        for (WorkItem.FeatureTag f : FEATURES) {
+            roll -= s.mix[f.ordinal()];
+            if (roll < 0) return f;
+        }
+        return FEATURES[0];
+    }
+
+    /**
+     * A player breaks a block: fresh terrain, then the same scan, batch and
+     * job limit as a real activation. Only the scan is timed.
+     */
+    private void trigger(SimPlayer p, WorkItem.FeatureTag feature, long now) {
+        if (p.jobs >= cfg.maxJobsPerPlayer()) {
+            refused++;
+            return;
+        }
+
+        long seed = random.nextLong();
+        Terrain.Origin o = switch (feature) {
+            case TREE -> switch (s.trees[random.nextInt(s.trees.length)].trim()) {
+                case "jungle" -> Terrain.jungle(seed);
+                case "mangrove" -> Terrain.mangrove(seed);
+                default -> Terrain.oak(seed);
+            };
+            case VEIN -> Terrain.oreCluster(seed, 2 + random.nextInt(3), 0.6);
+            default -> Terrain.farm(seed, cfg.autoFarmRadius());
+        };
+        MemoryWorld world = o.world();
+        Location origin = new Location(null, o.x(), o.y(), o.z());
+        Material type = world.type(o.x(), o.y(), o.z());
+        Feature f = switch (feature) {
+            case TREE -> tree;
+            case VEIN -> vein;
+            default -> farm;
+        };
+
+        long t0 = System.nanoTime();
+        KeyBuffer targets = f.collectKeys(world, o.key(), 4);
+        recordCollect(feature, System.nanoTime() - t0);
+
+        if (targets.isEmpty() || (feature != WorkItem.FeatureTag.TREE && targets.size() == 1)) {
+            empty++;
+            return;
+        }
+
+        Job job;
+        WorkBatch batch;
+        switch (feature) {
+            case TREE -> {
+                Long stump = ActivationListener.findStump(world, targets);
+                long key = stump != null ? stump : o.key();
+                job = Job.treeFeller(null, origin, type,
+                    new Location(null, Block.getBlockKeyX(key), Block.getBlockKeyY(key), Block.getBlockKeyZ(key)));
+                batch = ActivationListener.treeBatch(world, targets, stump,
+                    cfg.treeFellerReplant() ? TreeAssistFeature.saplingForLog(type) : null, !cfg.bulkApply());
+            }
+            case VEIN -> {
+                job = Job.veinMine(null, origin, type);
+                batch = ActivationListener.veinBatch(targets, !cfg.bulkApply());
+            }
+            default -> {
+                job = Job.autoFarm(null, origin);
+                batch = ActivationListener.farmBatch(targets);
+            }
+        }
+
+        SimJob sj = new SimJob(p, world, now);
+        sj.remaining = batch.size();
+        jobs.put(job, sj);
+        p.queue.addAll(job, batch);
+        p.jobs++;
+        started[feature.ordinal()]++;
+    }
+
+    /**
+     * One tick of one player's partition, budgeted like the work loop.
+     */
+    private void tickQueue(SimPlayer p, long now) {
+        WorkQueue q = p.queue;
+        q.advanceTo(now);
+        int due = q.readyCount();
+        if (due == 0) {
+            // Nothing due: the partition sleeps and holds no budget
+            scheduler.release(p.key);
+            return;
+        }
+
+        boolean timed = cfg.timeSlicedBudget();
+        long budget = scheduler.acquire(p.key, timed ? controller.estimateNanos(due) : due);
+        long start = System.nanoTime();
+        int count = 0;
+        for (int i = 0; i < due; i++) {
+            if (timed ? System.nanoTime() - start >= budget : count >= budget) break;
+            int slot = q.poll();
+            if (slot == WorkQueue.NONE) break;
+
+            SimJob sj = jobs.get(q.job(slot));
+            sj.maxLag = Math.max(sj.maxLag, now - q.due(slot));
+            boolean requeued = switch (q.action(slot)) {
+                case BREAK -> handleBreak(q, slot, sj);
+                case PLANT -> handlePlant(q, slot, sj.world);
+                case REPLANT -> handleReplant(q, slot, sj.world);
+            };
+            if (!requeued) done(q, slot, sj, now);
+            count++;
+        }
+        processed += count;
+
+        long spent = count;
+        if (timed) {
+            spent = System.nanoTime() - start;
+            controller.recordItems(count, spent);
+        }
+        scheduler.complete(p.key, budget, spent, q.isEmpty());
+    }
+
+    private void done(WorkQueue q, int slot, SimJob sj, long now) {
+        Job job = q.job(slot);
+        q.free(slot);
+        if (--sj.remaining > 0) return;
+
+        jobs.remove(job);
+        sj.player.jobs--;
+        latencies.get(job.feature.ordinal()).add(now - sj.startTick);
+        lags.get(job.feature.ordinal()).add(sj.maxLag);
+    }
+
+    // ==================== HANDLERS ====================
+    // Same block reads, writes and drop rolls as WorkService, minus items
+
+    private boolean handleBreak(WorkQueue q, int slot, SimJob sj) {
+        MemoryWorld w = sj.world;
+        int x = q.x(slot), y = q.y(slot), z = q.z(slot);
+        Material type = w.type(x, y, z);
+        if (type.isAir()) return false;
+
+        Job job = q.job(slot);
+        switch (job.feature) {
+            case TREE -> {
+                if (q.isLeaf(slot)) {
+                    job.treeResult.addLeafDrops(LeafDropUtil.getTreeTypeFromLog(job.logType));
+                } else {
+                    job.treeResult.addLog();
+                }
+            }
+            case VEIN -> {
+                Material drop = FortuneUtil.getOreDrop(type);
+                int count = cfg.veinMinerFortuneEnabled() ? FortuneUtil.calculateDropCount(type, 0) : 1;
+                job.veinResult.addMinedBlock();
+                job.veinResult.addDrops(drop, count);
+                job.veinResult.addXP(FortuneUtil.getOreXP(type));
+            }
+            case FARM -> {
+                if (cfg.autoFarmReplant() && AutoFarmFeature.canReplant(type)) {
+                    q.add(job, q.blockKey(slot), WorkItem.Action.REPLANT, 1, 3, type);
+                    sj.remaining++;
+                }
+            }
+            default -> {}
+        }
+        w.setType(x, y, z, Material.AIR, true);
+        return false;
+    }
+
+    private boolean handlePlant(WorkQueue q, int slot, MemoryWorld w) {
+        int x = q.x(slot), y = q.y(slot), z = q.z(slot);
+        if (w.type(x, y, z).isAir() && TREE_SOIL.contains(w.type(x, y - 1, z))) {
+            w.setType(x, y, z, q.plant(slot), true);
+            return false;
+        }
+        return q.retry(slot, 5);
+    }
+
+    private boolean handleReplant(WorkQueue q, int slot, MemoryWorld w) {
+        int x = q.x(slot), y = q.y(slot), z = q.z(slot);
+        Material crop = AutoFarmFeature.getCropBlock(AutoFarmFeature.getSeed(q.plant(slot)));
+        if (crop != null && w.type(x, y, z).isAir() && w.type(x, y - 1, z) == Material.FARMLAND) {
+            w.setType(x, y, z, crop, true);
+            return false;
+        }
+        return q.retry(slot, 2);
+    }
+
+    // ==================== REPORT ====================
+
+    private void recordCollect(WorkItem.FeatureTag f, long nanos) {
+        int i = f.ordinal();
+        if (collectCount[i] == collectNanos[i].length) {
+            collectNanos[i] = Arrays.copyOf(collectNanos[i], collectCount[i] * 2);
+        }
+        collectNanos[i][collectCount[i]++] = nanos;
+    }
+
+    void report() {
+        int ticks = tickNanos.length;
+        System.out.printf("=== Load simulation: %d players, %d s (%d ticks), %s ===%n",
+            s.players, s.seconds, ticks, s.rate > 0 ? s.rate + " triggers/player/min" : "one job per player at all times");
+        System.out.printf("Budget: %s, %d blocks/tick per player, %d global; tick budget %.1f ms%n",
+            s.budget, s.blocksPerTick, s.globalBlocksPerTick, s.budgetMs);
+        System.out.printf("Triggers: %d refused (job limit), %d with nothing to do%n", refused, empty);
+
+        for (WorkItem.FeatureTag f : FEATURES) {
+            int i = f.ordinal();
+            if (started[i] == 0) continue;
+            long[] lat = latencies.get(i).stream().mapToLong(Long::longValue).toArray();
+            long[] lag = lags.get(i).stream().mapToLong(Long::longValue).toArray();
+            long[] scan = Arrays.copyOf(collectNanos[i], collectCount[i]);
+            System.out.printf("  %-5s %5d started, %5d unfinished | latency p50/p95/p99 %s ticks, lag %s | scan p50/p95/max %s ms%n",
+                f.name().toLowerCase(), started[i], unfinished[i],
+                percentiles(lat, 1, "%.0f", 0.50, 0.95, 0.99),
+                percentiles(lag, 1, "%.0f", 0.50, 0.95, 0.99),
+                percentiles(scan, 1e6, "%.3f", 0.50, 0.95, 1.0));
+        }
+
+        double loopSeconds = Arrays.stream(tickNanos).sum() / 1e9;
+        System.out.printf("Throughput: %d blocks, %.1f/tick; %.0f blocks/s of work loop time; %.1fx real time%n",
+            processed, processed / (double) ticks, processed / Math.max(1e-9, loopSeconds),
+            (ticks / 20.0) / (wallNanos / 1e9));
+        long over = Arrays.stream(tickNanos).filter(n -> n > s.budgetMs * 1e6).count();
+        System.out.printf("Work loop per tick: p50/p95/p99/max %s ms; %d ticks over budget (%.2f%%)%n",
+            percentiles(tickNanos, 1e6, "%.3f", 0.50, 0.95, 0.99, 1.0), over, 100.0 * over / ticks);
+        System.out.printf("Queue depth: avg %.0f, max %d items; active jobs avg %.1f, max %d; active queues now %d%n",
+            queueDepthSum / (double) ticks, queueDepthMax, activeJobsSum / (double) ticks, activeJobsMax,
+            scheduler.activeQueues());
+        System.out.printf("Heap: %.1f MB peak over a %.1f MB baseline%n",
+            (heapPeak - heapBaseline) / 1e6, heapBaseline / 1e6);
+    }
+
+    /**
+     * Double the players on one feature until the work loop's p95 tick cost
+     * goes over budget or p95 job lag over the limit, then narrow down.
+     */
+    static void sweep(Settings base, WorkItem.FeatureTag feature) {
+        double[] mix = new double[FEATURES.length];
+        mix[feature.ordinal()] = 1;
+        Settings s = new Settings(base.players, base.seconds, 0, mix, base.trees, base.budget,
+            base.blocksPerTick, base.globalBlocksPerTick, base.maxJobs, base.budgetMs,
+            base.maxLagTicks, base.seed, base.configFile);
+
+        // Warm up the JIT so the first step isn't measured in the interpreter
+        new LoadSimulation(s.withPlayers(64)).run();
+
+        System.out.printf("Sweep: simultaneous %s jobs within %.1f ms/tick and %d ticks lag (p95)%n",
+            feature.name().toLowerCase(), s.budgetMs, s.maxLagTicks);
+        int good = 0, bad = -1;
+        for (int n = 8; bad < 0 && n <= 1 << 16; n *= 2) {
+            if (fits(s.withPlayers(n))) good = n;
+            else bad = n;
+        }
+        while (bad > 0 && bad - good > Math.max(1, good / 20)) {
+            int mid = (good + bad) / 2;
+            if (fits(s.withPlayers(mid))) good = mid;
+            else bad = mid;
+        }
+        System.out.printf("=> about %d simultaneous %s jobs fit%n", good, feature.name().toLowerCase());
+    }
+
+    private static boolean fits(Settings s) {
+        LoadSimulation sim = new LoadSimulation(s);
+        sim.run();
+        long p95Tick = percentile(sim.tickNanos, 0.95);
+        long[] lag = sim.lags.get(indexOf(s.mix))
+            .stream().mapToLong(Long::longValue).toArray();
+        long p95Lag = lag.length == 0 ? Long.MAX_VALUE : percentile(lag, 0.95);
+        boolean ok = p95Tick <= s.budgetMs * 1e6 && p95Lag <= s.maxLagTicks;
+        System.out.printf("  %6d players: p95 tick %.3f ms, p95 lag %s ticks -> %s%n", s.players,
+            p95Tick / 1e6, lag.length == 0 ? "-" : String.valueOf(p95Lag), ok ? "ok" : "over");
+        return ok;
+    }
+
+    private static int indexOf(double[] mix) {
+        for (int i = 0; i < mix.length; i++) {
+            if (mix[i] > 0) return i;
+        }
+        return 0;
+    }
+
+    private static long percentile(long[] values, double p) {
+        if (values.length == 0) return 0;
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static String percentiles(long[] values, double scale, String format, double... ps) {
+        if (values.length == 0) return "-";
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        StringBuilder sb = new StringBuilder();
+        for (double p : ps) {
+            if (sb.length() > 0) sb.append(" / ");
+            int i = Math.min(sorted.length - 1, Math.max(0, (int) Math.ceil(p * sorted.length) - 1));
+            sb.append(String.format(format, sorted[i] / scale));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,122 @@
+package net.ppekkungz.essentialUtils.bench;
+
+import net.ppekkungz.essentialUtils.config.PluginConfig;
+import net.ppekkungz.essentialUtils.features.TargetStream;
+import net.ppekkungz.essentialUtils.features.tree.TreeAssistFeature;
+import net.ppekkungz.essentialUtils.features.vein.VeinMineFeature;
+import net.ppekkungz.essentialUtils.world.FloodFill;
+import net.ppekkungz.essentialUtils.world.KeyBuffer;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Target collection as run on a block break: the tree feller's log and leaf
+ * BFS, the vein miner's ore BFS, and the neighbour expansion both are built on.
+ * The streamed variants find the same targets 64 at a time, as
+ * performance.stream does across ticks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ScanBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Tree {
+        @Param({"oak", "jungle", "mangrove"})
+        public String tree;
+
+        TreeAssistFeature feature;
+        Terrain.Origin origin;
+
+        @Setup
+        public void setup() {
+            feature = new TreeAssistFeature(config(2048, 64));
+            origin = switch (tree) {
+                case "oak" -> Terrain.oak(42);
+                case "jungle" -> Terrain.jungle(42);
+                case "mangrove" -> Terrain.mangrove(42);
+                default -> throw new IllegalArgumentException(tree);
+            };
+
+            // A broken generator must not pass as a fast empty scan
+            if (feature.collectKeys(origin.world(), origin.key(), -1).isEmpty()) {
+                throw new IllegalStateException("Generated " + tree + " tree was not recognised");
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Vein {
+        // Ellipsoid radius of the ore cluster
+        @Param({"3", "6"})
+        public int radius;
+
+        @Param({"64", "512"})
+        public int maxOres;
+
+        VeinMineFeature feature;
+        Terrain.Origin origin;
+        long[] blocks;
+
+        @Setup
+        public void setup() {
+            feature = new VeinMineFeature(config(200, maxOres));
+            origin = Terrain.oreCluster(42, radius, 0.7);
+            blocks = feature.collectKeys(origin.world(), origin.key(), 4).toArray();
+            if (blocks.length < 2) {
+                throw new IllegalStateException("Generated vein has no neighbors");
+            }
+        }
+    }
+
+    @Benchmark
+    public KeyBuffer treeFeller(Tree s) {
+        return s.feature.collectKeys(s.origin.world(), s.origin.key(), -1);
+    }
+
+    @Benchmark
+    public KeyBuffer veinMiner(Vein s) {
+        return s.feature.collectKeys(s.origin.world(), s.origin.key(), 4);
+    }
+
+    @Benchmark
+    public int treeFellerStreamed(Tree s) {
+        return drain(s.feature.streamKeys(s.origin.world(), s.origin.key(), -1));
+    }
+
+    @Benchmark
+    public int veinMinerStreamed(Vein s) {
+        return drain(s.feature.streamKeys(s.origin.world(), s.origin.key(), 4));
+    }
+
+    private static int drain(TargetStream stream) {
+        int n = 0;
+        while (!stream.isDone()) {
+            n += stream.next(64).size();
+        }
+        return n;
+    }
+
+    /**
+     * One 26-neighbour expansion per block of the vein, every neighbour
+     * read and rejected.
+     */
+    @Benchmark
+    public int neighbors26(Vein s) {
+        KeyBuffer out = new KeyBuffer();
+        FloodFill fill = FloodFill.begin(s.origin.world(), out);
+        for (long b : s.blocks) {
+            fill.spread(b, FloodFill.Connectivity.CORNERS, (w, x, y, z) -> w.type(x, y, z) == null, Integer.MAX_VALUE);
+        }
+        fill.end();
+        return out.size();
+    }
+
+    private static PluginConfig config(int maxBlocks, int maxOres) {
+        YamlConfiguration yaml = new YamlConfiguration();
+        yaml.set("modules.treeFeller.maxBlocks", maxBlocks);
+        yaml.set("modules.veinMiner.maxOres", maxOres);
+        return new PluginConfig(yaml);
+    }
+}
@@ -0,0 +1,181 @@
+package net.ppekkungz.essentialUtils.bench;
+
+import net.ppekkungz.essentialUtils.world.MemoryWorld;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+
+import java.util.Random;
+
+/**
+ * Synthetic terrain for benchmarks: trees and ore clusters generated into
+ * a {@link MemoryWorld}, with the block a player would break to trigger
+ * the feature. Seeded, so every run scans the same shapes.
+ */
+final class Terrain {
+    private Terrain() {}
+
+    /**
+     * A generated world and the block a player would break.
+     */
+    record Origin(MemoryWorld world, int x, int y, int z) {
+        long key() {
+            return Block.getBlockKey(x, y, z);
+        }
+    }
+
+    /**
+     * A small oak: 4-6 log trunk under a two-layer canopy of radius 2
+     * topped by a radius-1 cross.
+     */
+    static Origin oak(long seed) {
+        Random r = new Random(seed);
+        MemoryWorld w = new MemoryWorld(0, 0, 0, 24, 24, 24);
+        w.fill(0, 0, 0, w.sizeX - 1, 3, w.sizeZ - 1, Material.DIRT);
+        int cx = 12, cz = 12, base = 4;
+        int height = 4 + r.nextInt(3);
+        for (int y = base; y < base + height; y++) w.set(cx, y, cz, Material.OAK_LOG);
+
+        int top = base + height - 1;
+        for (int y = top - 2; y <= top + 1; y++) {
+            int radius = y <= top - 1 ? 2 : 1;
+            canopyLayer(w, r, cx, y, cz, radius, Material.OAK_LEAVES);
+        }
+        return new Origin(w, cx, base, cz);
+    }
+
+    /**
+     * A mega jungle tree: 2x2 trunk of 20-28 logs, side branches with leaf
+     * pads, and a wide canopy on top.
+     */
+    static Origin jungle(long seed) {
+        Random r = new Random(seed);
+        MemoryWorld w = new MemoryWorld(0, 0, 0, 40, 48, 40);
+        w.fill(0, 0, 0, w.sizeX - 1, 3, w.sizeZ - 1, Material.DIRT);
+        int cx = 20, cz = 20, base = 4;
+        int height = 20 + r.nextInt(9);
+        for (int y = base; y < base + height; y++)
+            for (int dx = 0; dx <= 1; dx++)
+                for (int dz = 0; dz <= 1; dz++)
+                    w.set(cx + dx, y, cz + dz, Material.JUNGLE_LOG);
+
+        // Branches from the upper half, each ending in a leaf pad
+        for (int y = base + height / 2; y < base + height - 3; y += 2 + r.nextInt(3)) {
+            double angle = r.nextDouble() * Math.PI * 2;
+            int length = 2 + r.nextInt(3);
+            int bx = cx, bz = cz, by = y;
+            for (int i = 1; i <= length; i++) {
+                bx = cx + (int) Math.round(Math.cos(angle) * i);
+                bz = cz + (int) Math.round(Math.sin(angle) * i);
+                by = y + i / 2;
+                w.set(bx, by, bz, Material.JUNGLE_LOG);
+            }
+            canopyLayer(w, r, bx, by, bz, 2, Material.JUNGLE_LEAVES);
+            canopyLayer(w, r, bx, by + 1, bz, 1, Material.JUNGLE_LEAVES);
+        }
+
+        int top = base + height;
+        for (int y = top - 2; y <= top + 1; y++) {
+            int radius = y < top ? 5 : 4 - (y - top);
+            canopyLayer(w, r, cx, y, cz, radius, Material.JUNGLE_LEAVES);
+        }
+        // Tall trees only trigger near their leaves; the scan still starts at the stump
+        return new Origin(w, cx, top - 3, cz);
+    }
+
+    /**
+     * A mangrove: trunk raised on arching roots, diagonal branches and a
+     * wide, flat canopy.
+     */
+    static Origin mangrove(long seed) {
+        Random r = new Random(seed);
+        MemoryWorld w = new MemoryWorld(0, 0, 0, 32, 32, 32);
+        w.fill(0, 0, 0, w.sizeX - 1, 3, w.sizeZ - 1, Material.MUD);
+        int cx = 16, cz = 16, base = 7;
+
+        // Roots arch down from the trunk base into the mud
+        for (int i = 0; i < 6; i++) {
+            double angle = i * Math.PI / 3 + r.nextDouble() * 0.4;
+            for (int step = 1; step <= 3; step++) {
+                int x = cx + (int) Math.round(Math.cos(angle) * step);
+                int z = cz + (int) Math.round(Math.sin(angle) * step);
+                w.set(x, base - step, z, Material.MANGROVE_ROOTS);
+            }
+        }
+
+        int height = 6 + r.nextInt(4);
+        for (int y = base; y < base + height; y++) w.set(cx, y, cz, Material.MANGROVE_LOG);
+
+        int top = base + height;
+        for (int i = 0; i < 3; i++) {
+            int dx = r.nextInt(3) - 1, dz = r.nextInt(3) - 1;
+            for (int step = 1; step <= 3; step++) {
+                w.set(cx + dx * step, top - 3 + step, cz + dz * step, Material.MANGROVE_LOG);
+            }
+        }
+        for (int y = top - 1; y <= top + 1; y++) {
+            int radius = y <= top ? 4 : 3;
+            canopyLayer(w, r, cx, y, cz, radius, Material.MANGROVE_LEAVES);
+        }
+        return new Origin(w, cx, top - 2, cz);
+    }
+
+    /**
+     * A dense ore cluster in stone: an ellipsoid of the given radius where
+     * each cell is ore with chance {@code density}, deepslate variants in the
+     * lower half.
+     */
+    static Origin oreCluster(long seed, int radius, double density) {
+        Random r = new Random(seed);
+        int size = radius * 2 + 8;
+        MemoryWorld w = new MemoryWorld(0, 0, 0, size, size, size);
+        int c = size / 2;
+        w.fill(0, 0, 0, w.sizeX - 1, c - 1, w.sizeZ - 1, Material.DEEPSLATE);
+        w.fill(0, c, 0, size - 1, size - 1, size - 1, Material.STONE);
+
+        for (int dx = -radius; dx <= radius; dx++)
+            for (int dy = -radius / 2; dy <= radius / 2; dy++)
+                for (int dz = -radius; dz <= radius; dz++) {
+                    double d = (dx * dx + dz * dz) / (double) (radius * radius)
+                        + (dy * dy) / (double) Math.max(1, (radius / 2) * (radius / 2));
+                    if (d > 1 || r.nextDouble() >= density) continue;
+                    int y = c + dy;
+                    w.set(c + dx, y, c + dz, y < c ? Material.DEEPSLATE_COAL_ORE : Material.COAL_ORE);
+                }
+        w.set(c, c, c, Material.COAL_ORE);
+        return new Origin(w, c, c, c);
+    }
+
+    /**
+     * A square field of fully grown wheat on farmland, with a few unripe
+     * and missing crops.
+     */
+    static Origin farm(long seed, int radius) {
+        Random r = new Random(seed);
+        int size = radius * 2 + 5;
+        MemoryWorld w = new MemoryWorld(0, 0, 0, size, 8, size);
+        int c = size / 2, y = 4;
+        w.fill(0, 0, 0, size - 1, y - 2, size - 1, Material.DIRT);
+        w.fill(0, y - 1, 0, size - 1, y - 1, size - 1, Material.FARMLAND);
+        for (int x = c - radius; x <= c + radius; x++)
+            for (int z = c - radius; z <= c + radius; z++) {
+                double roll = r.nextDouble();
+                if (roll < 0.05) continue;
+                w.setAged(x, y, z, Material.WHEAT, roll < 0.15 ? r.nextInt(7) : 7);
+            }
+        w.setAged(c, y, c, Material.WHEAT, 7);
+        return new Origin(w, c, y, c);
+    }
+
+    /**
+     * Round layer of natural leaves, corners dropped at random; keeps logs.
+     */
+    private static void canopyLayer(MemoryWorld w, Random r, int cx, int y, int cz, int radius, Material leaf) {
+        for (int dx = -radius; dx <= radius; dx++)
+            for (int dz = -radius; dz <= radius; dz++) {
+                int d2 = dx * dx + dz * dz;
+                if (d2 > radius * radius) continue;
+                if (d2 == radius * radius && r.nextBoolean()) continue;
+                if (w.type(cx + dx, y, cz + dz) == Material.AIR) w.set(cx + dx, y, cz + dz, leaf);
+            }
+    }
+}
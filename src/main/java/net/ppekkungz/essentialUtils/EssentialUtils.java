@@ -7,6 +7,8 @@ import net.ppekkungz.essentialUtils.indicator.ActionBarService;
 import net.ppekkungz.essentialUtils.indicator.TabMenuService;
 import net.ppekkungz.essentialUtils.listener.ActivationListener;
 import net.ppekkungz.essentialUtils.state.StateManager;
+import net.ppekkungz.essentialUtils.util.MaterialIndex;
+import net.ppekkungz.essentialUtils.util.Protection;
 import net.ppekkungz.essentialUtils.work.WorkService;
 import org.bukkit.plugin.java.JavaPlugin;
 
@@ -41,6 +43,8 @@ public final class EssentialUtils extends JavaPlugin {
         loadPluginConfig();
 
         // Initialize services
+        MaterialIndex.init();
+        Protection.setCacheSeconds(cfg.protectionCacheSeconds());
         states = new StateManager();
         actionBar = new ActionBarService(this);
         work = new WorkService(this, cfg, states, actionBar);
@@ -55,6 +59,10 @@ public final class EssentialUtils extends JavaPlugin {
             this
         );
 
+        // Resume journaled jobs of players already online (plugin reload)
+        getServer().getOnlinePlayers().forEach(p ->
+            p.getScheduler().run(this, task -> work.resume(p), null));
+
         // Register commands using Brigadier
         new AdminCommands(this).register();
 
@@ -73,6 +81,7 @@ public final class EssentialUtils extends JavaPlugin {
         if (chunkLoader != null) chunkLoader.shutdown();
         if (tabMenu != null) tabMenu.shutdown();
         if (states != null) states.clear();
+        Protection.clear();
         getLogger().info("EssentialUtils disabled.");
     }
 
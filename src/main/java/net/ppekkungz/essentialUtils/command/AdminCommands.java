@@ -13,10 +13,14 @@ import io.papermc.paper.plugin.lifecycle.event.types.LifecycleEvents;
 import net.ppekkungz.essentialUtils.EssentialUtils;
 import net.ppekkungz.essentialUtils.config.PluginConfig;
 import net.ppekkungz.essentialUtils.features.chunkloader.ChunkLoaderFeature;
+import net.ppekkungz.essentialUtils.work.LatencyHistogram;
+import net.ppekkungz.essentialUtils.work.WorkItem;
+import net.ppekkungz.essentialUtils.work.WorkMetrics;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -75,6 +79,13 @@ public class AdminCommands {
                 .requires(source -> source.getSender().hasPermission("essentialutils.admin"))
                 .executes(this::showStatus))
             
+            // /eutils perf [1m|5m]
+            .then(Commands.literal("perf")
+                .requires(source -> source.getSender().hasPermission("essentialutils.admin"))
+                .executes(ctx -> showPerf(ctx, 60))
+                .then(Commands.literal("1m").executes(ctx -> showPerf(ctx, 60)))
+                .then(Commands.literal("5m").executes(ctx -> showPerf(ctx, 300))))
+            
             // /eutils reload
             .then(Commands.literal("reload")
                 .requires(source -> source.getSender().hasPermission("essentialutils.admin"))
@@ -143,6 +154,7 @@ public class AdminCommands {
         sender.sendMessage("  §e/eutils enable <module> §7- Enable a module");
         sender.sendMessage("  §e/eutils disable <module> §7- Disable a module");
         sender.sendMessage("  §e/eutils status §7- View module status");
+        sender.sendMessage("  §e/eutils perf [1m|5m] §7- View work latencies");
         sender.sendMessage("  §e/eutils reload §7- Reload configuration");
         sender.sendMessage("");
         sender.sendMessage("  §e/chunk claim §7- Claim current chunk");
@@ -223,11 +235,99 @@ public class AdminCommands {
         }
         
         sender.sendMessage("");
-        sender.sendMessage("§7Performance: §f" + cfg.blocksPerTick() + " blocks/tick");
+        if (cfg.timeSlicedBudget() && plugin.work() != null) {
+            var controller = plugin.work().controller();
+            double mspt = controller.lastMspt();
+            sender.sendMessage("§7Performance: §ftime-sliced §7(" 
+                + String.format("%.2f", controller.sliceNanos() / 1_000_000.0) + "ms/tick, target §f" 
+                + cfg.targetMspt() + " §7mspt" 
+                + (Double.isNaN(mspt) ? "" : ", now §f" + String.format("%.1f", mspt)) + "§7)");
+        } else {
+            sender.sendMessage("§7Performance: §f" + cfg.blocksPerTick() + " blocks/tick §7per player, §f" 
+                + cfg.globalBlocksPerTick() + " §7global");
+        }
+        if (plugin.work() != null) {
+            sender.sendMessage("§7Active work queues: §f" + plugin.work().activeQueues());
+            showMetrics(sender, plugin.work().metrics());
+        }
         
         return Command.SINGLE_SUCCESS;
     }
 
+    /**
+     * One line per feature that has done any work since startup.
+     */
+    private void showMetrics(CommandSender sender, WorkMetrics metrics) {
+        for (WorkItem.FeatureTag feature : WorkItem.FeatureTag.values()) {
+            if (metrics.get(WorkMetrics.Metric.PROCESSED, feature) == 0
+                    && metrics.get(WorkMetrics.Metric.ACTIVE_JOBS, feature) == 0) {
+                continue;
+            }
+            StringBuilder sb = new StringBuilder("  §7").append(feature.name().toLowerCase()).append(":");
+            for (WorkMetrics.Metric m : WorkMetrics.Metric.values()) {
+                sb.append(" §f").append(metrics.get(m, feature)).append(" §7").append(m.label);
+            }
+            sender.sendMessage(sb.toString());
+        }
+    }
+
+    /**
+     * Latency percentiles over the last {@code seconds}, per timer and feature.
+     */
+    private int showPerf(CommandContext<CommandSourceStack> context, int seconds) {
+        CommandSender sender = context.getSource().getSender();
+        if (plugin.work() == null) {
+            sender.sendMessage("§c[EssentialUtils] §fWork service is not running.");
+            return Command.SINGLE_SUCCESS;
+        }
+        WorkMetrics metrics = plugin.work().metrics();
+        
+        sender.sendMessage("§6§l[EssentialUtils] §fLatency §7(last " + seconds / 60 + "m, p50 / p95 / p99 / max):");
+        boolean any = false;
+        for (WorkMetrics.Timer timer : WorkMetrics.Timer.values()) {
+            for (WorkItem.FeatureTag feature : WorkItem.FeatureTag.values()) {
+                LatencyHistogram.Snapshot s = metrics.timer(timer, feature).snapshot(seconds);
+                if (s.count() == 0) continue;
+                sender.sendMessage(perfLine(feature.name().toLowerCase() + " " + timer.label, s));
+                any = true;
+            }
+        }
+        LatencyHistogram.Snapshot tick = metrics.tickTime().snapshot(seconds);
+        if (tick.count() > 0) {
+            sender.sendMessage(perfLine("work loop tick", tick));
+            any = true;
+        }
+        if (!any) {
+            sender.sendMessage("  §7No jobs in this window.");
+        }
+
+        // Split of the loop's time between features; a total, so not a percentile
+        long total = 0;
+        for (WorkItem.FeatureTag feature : WorkItem.FeatureTag.values()) {
+            total += metrics.attributedNanos(feature);
+        }
+        if (total > 0) {
+            List<String> parts = new ArrayList<>();
+            for (WorkItem.FeatureTag feature : WorkItem.FeatureTag.values()) {
+                long nanos = metrics.attributedNanos(feature);
+                if (nanos == 0) continue;
+                parts.add("§f" + feature.name().toLowerCase() + " " + String.format("%.1f", nanos / 1e9)
+                    + "s §7(" + nanos * 100 / total + "%)");
+            }
+            sender.sendMessage("  §7work loop time since start: " + String.join(" §8• ", parts));
+        }
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static String perfLine(String name, LatencyHistogram.Snapshot s) {
+        return "  §7" + name + ": §f" + millis(s.p50()) + " §7/ §f" + millis(s.p95())
+            + " §7/ §f" + millis(s.p99()) + " §7/ §f" + millis(s.max()) + "ms §7(n=" + s.count() + ")";
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.2f", micros / 1000.0);
+    }
+
     private int reloadConfig(CommandContext<CommandSourceStack> context) {
         CommandSender sender = context.getSource().getSender();
         
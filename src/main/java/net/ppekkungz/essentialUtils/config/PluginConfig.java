@@ -32,6 +32,9 @@ public class PluginConfig {
     public boolean treeFellerParticles() { 
         return c.getBoolean("modules.treeFeller.particleEffects", true); 
     }
+    public boolean treeFellerDeliverToInventory() { 
+        return c.getBoolean("modules.treeFeller.deliverToInventory", false); 
+    }
 
     // Vein Miner
     public boolean veinMinerEnabled() { 
@@ -49,6 +52,9 @@ public class PluginConfig {
     public boolean veinMinerSilkTouchDropsOre() { 
         return c.getBoolean("modules.veinMiner.silkTouchDropsOre", true); 
     }
+    public boolean veinMinerDeliverToInventory() { 
+        return c.getBoolean("modules.veinMiner.deliverToInventory", false); 
+    }
 
     // Auto Farm
     public boolean autoFarmEnabled() { 
@@ -63,6 +69,9 @@ public class PluginConfig {
     public boolean autoFarmReplant() { 
         return c.getBoolean("modules.autoFarm.autoReplant", true); 
     }
+    public boolean autoFarmDeliverToInventory() { 
+        return c.getBoolean("modules.autoFarm.deliverToInventory", false); 
+    }
 
     // Chunk Loader
     public boolean chunkLoaderEnabled() { 
@@ -183,9 +192,78 @@ public class PluginConfig {
     public int blocksPerTick() { 
         return c.getInt("performance.blocksPerTick", 32); 
     }
+    public int globalBlocksPerTick() { 
+        return c.getInt("performance.globalBlocksPerTick", 256); 
+    }
+    public boolean timeSlicedBudget() { 
+        return "time".equalsIgnoreCase(c.getString("performance.budgetMode", "blocks")); 
+    }
+    public double targetMspt() { 
+        return c.getDouble("performance.timeSlice.targetMspt", 45.0); 
+    }
+    public long minSliceNanos() { 
+        return (long) (c.getDouble("performance.timeSlice.minMillis", 0.5) * 1_000_000); 
+    }
+    public long maxSliceNanos() { 
+        return (long) (c.getDouble("performance.timeSlice.maxMillis", 15.0) * 1_000_000); 
+    }
+    public int maxJobsPerPlayer() { 
+        return c.getInt("performance.maxJobsPerPlayer", 4); 
+    }
+    public int protectionCacheSeconds() { 
+        return c.getInt("performance.protectionCacheSeconds", 30); 
+    }
     public boolean requireChunkLoaded() { 
         return c.getBoolean("performance.requireChunkLoaded", true); 
     }
+    public int regionShift() { 
+        return c.getInt("performance.regionShift", 4); 
+    }
+    public boolean bulkApply() { 
+        return c.getBoolean("performance.bulkApply", true); 
+    }
+    public boolean coalesceDrops() { 
+        return c.getBoolean("performance.coalesceDrops", true); 
+    }
+    public boolean preemptOnToolSwitch() { 
+        return c.getBoolean("performance.preemption.onToolSwitch", true); 
+    }
+    public boolean preemptOnToolWorn() { 
+        return c.getBoolean("performance.preemption.onToolWorn", true); 
+    }
+    public int preemptMaxDistance() { 
+        return c.getInt("performance.preemption.maxDistance", 48); 
+    }
+    public double preemptMinRegionTps() { 
+        return c.getDouble("performance.preemption.minRegionTps", 10.0); 
+    }
+    public boolean journalEnabled() { 
+        return c.getBoolean("performance.journal.enabled", true); 
+    }
+    public long journalSyncMillis() { 
+        return c.getLong("performance.journal.syncMillis", 1000L); 
+    }
+    public boolean asyncScan() { 
+        return c.getBoolean("performance.asyncScan.enabled", false); 
+    }
+    public int asyncScanChunkRadius() { 
+        return Math.max(0, c.getInt("performance.asyncScan.chunkRadius", 1)); 
+    }
+    public boolean stream() { 
+        return c.getBoolean("performance.stream.enabled", false); 
+    }
+    public int streamBatchSize() { 
+        return Math.max(1, c.getInt("performance.stream.batchSize", 64)); 
+    }
+    public int streamMaxAhead() { 
+        return Math.max(1, c.getInt("performance.stream.maxAhead", 128)); 
+    }
+    public boolean preScan() { 
+        return c.getBoolean("performance.preScan.enabled", false); 
+    }
+    public long preScanMaxAgeMillis() { 
+        return Math.max(0L, c.getLong("performance.preScan.maxAgeMillis", 5000L)); 
+    }
 
     // ==================== UTILITIES ====================
     
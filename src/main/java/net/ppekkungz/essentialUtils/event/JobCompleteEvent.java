@@ -0,0 +1,91 @@
+package net.ppekkungz.essentialUtils.event;
+
+import net.ppekkungz.essentialUtils.util.LeafDropUtil;
+import net.ppekkungz.essentialUtils.work.Job;
+import net.ppekkungz.essentialUtils.work.VeinMineResult;
+import net.ppekkungz.essentialUtils.work.WorkItem;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.List;
+
+/**
+ * Called once on the player's thread when a job has finished (or was
+ * cancelled), before its drops and XP are handed out.
+ *
+ * The drops are those the job collected: all of them when drops are
+ * coalesced or delivered to the inventory, otherwise only calculated ones
+ * such as leaf drops. Listeners may change the list and the XP.
+ */
+public class JobCompleteEvent extends Event {
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final Job job;
+    private final List<ItemStack> drops;
+    private int experience;
+
+    public JobCompleteEvent(Job job, List<ItemStack> drops, int experience) {
+        this.job = job;
+        this.drops = drops;
+        this.experience = experience;
+    }
+
+    public Job getJob() {
+        return job;
+    }
+
+    public Player getPlayer() {
+        return job.player;
+    }
+
+    public WorkItem.FeatureTag getFeature() {
+        return job.feature;
+    }
+
+    /**
+     * Why the job stopped early, or null if it ran to the end.
+     */
+    public Job.CancelReason getCancelReason() {
+        return job.cancelReason();
+    }
+
+    /**
+     * Log and leaf tallies of a tree job, null otherwise.
+     */
+    public LeafDropUtil.TreeFellerResult getTreeResult() {
+        return job.treeResult;
+    }
+
+    /**
+     * Ore, drop and XP tallies of a vein job, null otherwise.
+     */
+    public VeinMineResult getVeinResult() {
+        return job.veinResult;
+    }
+
+    /**
+     * Drops about to be handed out (mutable).
+     */
+    public List<ItemStack> getDrops() {
+        return drops;
+    }
+
+    public int getExperience() {
+        return experience;
+    }
+
+    public void setExperience(int experience) {
+        this.experience = Math.max(0, experience);
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
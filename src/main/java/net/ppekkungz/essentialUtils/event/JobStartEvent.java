@@ -0,0 +1,86 @@
+package net.ppekkungz.essentialUtils.event;
+
+import net.ppekkungz.essentialUtils.work.Job;
+import net.ppekkungz.essentialUtils.work.WorkItem;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+import java.util.Arrays;
+
+/**
+ * Called once when a tree, vein or field job is about to start, with every
+ * block it will modify. Stands in for the per-block break events that the
+ * job doesn't fire. Cancelling it stops the whole job (the triggering block
+ * then breaks normally). For a job still being scanned while it runs
+ * (performance.stream) it carries the first batch of targets only.
+ *
+ * Targets are packed with {@link Block#getBlockKey}; unpack them with
+ * {@link Block#getBlockKeyX} and friends.
+ */
+public class JobStartEvent extends Event implements Cancellable {
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final Job job;
+    private final long[] targets;
+    private final int count;
+    private boolean cancelled;
+
+    public JobStartEvent(Job job, long[] targets, int count) {
+        this.job = job;
+        this.targets = targets;
+        this.count = count;
+    }
+
+    public Job getJob() {
+        return job;
+    }
+
+    public Player getPlayer() {
+        return job.player;
+    }
+
+    public WorkItem.FeatureTag getFeature() {
+        return job.feature;
+    }
+
+    public int getTargetCount() {
+        return count;
+    }
+
+    /**
+     * Packed position of target {@code i}.
+     */
+    public long getTarget(int i) {
+        if (i < 0 || i >= count) throw new IndexOutOfBoundsException(i);
+        return targets[i];
+    }
+
+    /**
+     * Copy of all packed target positions.
+     */
+    public long[] getTargets() {
+        return Arrays.copyOf(targets, count);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void setCancelled(boolean cancel) {
+        this.cancelled = cancel;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
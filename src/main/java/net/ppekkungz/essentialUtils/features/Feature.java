@@ -1,5 +1,9 @@
 package net.ppekkungz.essentialUtils.features;
 
+import net.ppekkungz.essentialUtils.util.HarvestUtil;
+import net.ppekkungz.essentialUtils.world.BlockSource;
+import net.ppekkungz.essentialUtils.world.BukkitWorld;
+import net.ppekkungz.essentialUtils.world.KeyBuffer;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 
@@ -8,5 +12,38 @@ import java.util.Set;
 public interface Feature {
     String name();
     boolean canTrigger(Player p, Block origin);
-    Set<Block> collectTargets(Player p, Block origin); // BFS/scan result
+
+    /**
+     * Blocks to work on for a break at {@code origin}, as block keys in the
+     * order they should be processed. {@code toolTier} is the tier of the
+     * tool used ({@link HarvestUtil#toolTier}), -1 for none.
+     */
+    KeyBuffer collectKeys(BlockSource world, long origin, int toolTier); // BFS/scan result
+
+    /**
+     * {@link #collectKeys} a batch at a time; by default everything is
+     * collected up front and returned as one batch.
+     */
+    default TargetStream streamKeys(BlockSource world, long origin, int toolTier) {
+        return TargetStream.of(collectKeys(world, origin, toolTier));
+    }
+
+    /**
+     * Collect targets in a live world with the player's held tool.
+     */
+    default KeyBuffer collectKeys(Player p, Block origin) {
+        return collectKeys(new BukkitWorld(origin.getWorld()), origin.getBlockKey(),
+            HarvestUtil.toolTier(p.getInventory().getItemInMainHand().getType()));
+    }
+
+    /**
+     * {@link #collectKeys} as a set, in the same order.
+     */
+    default Set<Long> collectTargets(BlockSource world, long origin, int toolTier) {
+        return collectKeys(world, origin, toolTier).toSet();
+    }
+
+    default Set<Long> collectTargets(Player p, Block origin) {
+        return collectKeys(p, origin).toSet();
+    }
 }
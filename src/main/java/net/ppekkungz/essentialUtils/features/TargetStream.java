@@ -0,0 +1,45 @@
+package net.ppekkungz.essentialUtils.features;
+
+import net.ppekkungz.essentialUtils.world.KeyBuffer;
+
+/**
+ * A feature's targets found a batch at a time, in the same order as
+ * {@link Feature#collectKeys}, so work can start on the first ones while
+ * the rest is still being discovered. Not thread-safe; keeps reading the
+ * world it was opened on between calls.
+ */
+public interface TargetStream {
+
+    /**
+     * Find about {@code max} more targets (a few more if one expansion
+     * finds them). The buffer is reused by the next call; empty once
+     * {@link #isDone()}.
+     */
+    KeyBuffer next(int max);
+
+    /**
+     * True once every target has been returned.
+     */
+    boolean isDone();
+
+    /**
+     * A stream over targets that were all collected up front.
+     */
+    static TargetStream of(KeyBuffer targets) {
+        return new TargetStream() {
+            private boolean done;
+
+            @Override
+            public KeyBuffer next(int max) {
+                if (done) return KeyBuffer.empty();
+                done = true;
+                return targets;
+            }
+
+            @Override
+            public boolean isDone() {
+                return done;
+            }
+        };
+    }
+}
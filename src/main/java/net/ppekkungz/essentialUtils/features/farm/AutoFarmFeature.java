@@ -2,14 +2,14 @@ package net.ppekkungz.essentialUtils.features.farm;
 
 import net.ppekkungz.essentialUtils.config.PluginConfig;
 import net.ppekkungz.essentialUtils.features.Feature;
+import net.ppekkungz.essentialUtils.util.MaterialIndex;
+import net.ppekkungz.essentialUtils.world.BlockSource;
+import net.ppekkungz.essentialUtils.world.BukkitWorld;
+import net.ppekkungz.essentialUtils.world.KeyBuffer;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
-import org.bukkit.block.data.Ageable;
 import org.bukkit.entity.Player;
 
-import java.util.HashSet;
-import java.util.Set;
-
 /**
  * AutoFarm feature - harvests mature crops in a radius when using a hoe.
  * Always active when using a hoe on mature crops.
@@ -17,28 +17,6 @@ import java.util.Set;
  */
 public class AutoFarmFeature implements Feature {
     private final PluginConfig cfg;
-    
-    // Crops that can be harvested and replanted
-    private static final Set<Material> REPLANTABLE_CROPS = Set.of(
-        Material.WHEAT,
-        Material.CARROTS,
-        Material.POTATOES,
-        Material.BEETROOTS,
-        Material.NETHER_WART
-    );
-    
-    // All harvestable crops
-    private static final Set<Material> ALL_CROPS = Set.of(
-        Material.WHEAT,
-        Material.CARROTS,
-        Material.POTATOES,
-        Material.BEETROOTS,
-        Material.NETHER_WART,
-        Material.SWEET_BERRY_BUSH,
-        Material.COCOA,
-        Material.MELON,
-        Material.PUMPKIN
-    );
 
     public AutoFarmFeature(PluginConfig cfg) {
         this.cfg = cfg;
@@ -56,16 +34,17 @@ public class AutoFarmFeature implements Feature {
     }
 
     @Override
-    public Set<Block> collectTargets(Player p, Block origin) {
+    public KeyBuffer collectKeys(BlockSource world, long origin, int toolTier) {
         int radius = cfg.autoFarmRadius();
-        Set<Block> out = new HashSet<>();
+        int ox = Block.getBlockKeyX(origin), y = Block.getBlockKeyY(origin), oz = Block.getBlockKeyZ(origin);
+        KeyBuffer out = new KeyBuffer((2 * radius + 1) * (2 * radius + 1));
 
         // Scan a square area around the origin block
         for (int dx = -radius; dx <= radius; dx++) {
             for (int dz = -radius; dz <= radius; dz++) {
-                Block b = origin.getRelative(dx, 0, dz);
-                if (isCrop(b.getType()) && isMature(b)) {
-                    out.add(b);
+                int x = ox + dx, z = oz + dz;
+                if (isCrop(world.type(x, y, z)) && isMature(world, x, y, z)) {
+                    out.add(Block.getBlockKey(x, y, z));
                 }
             }
         }
@@ -76,26 +55,30 @@ public class AutoFarmFeature implements Feature {
      * Check if a material is a crop.
      */
     public static boolean isCrop(Material m) {
-        return ALL_CROPS.contains(m);
+        // Wheat, carrots, potatoes, beetroots, nether wart, sweet berries,
+        // cocoa, melon and pumpkin
+        return MaterialIndex.isCrop(m);
     }
 
     /**
      * Check if a block is mature (fully grown).
      */
     public static boolean isMature(Block b) {
-        Material type = b.getType();
+        return isMature(new BukkitWorld(b.getWorld()), b.getX(), b.getY(), b.getZ());
+    }
+
+    public static boolean isMature(BlockSource world, int x, int y, int z) {
+        Material type = world.type(x, y, z);
+        int age = world.age(x, y, z);
         
         // Sweet berry bush: mature at age 2-3 (can harvest at 2, max at 3)
         if (type == Material.SWEET_BERRY_BUSH) {
-            if (b.getBlockData() instanceof Ageable age) {
-                return age.getAge() >= 2;
-            }
-            return false;
+            return age >= 2;
         }
         
         // Standard ageable crops
-        if (b.getBlockData() instanceof Ageable age) {
-            return age.getAge() >= age.getMaximumAge();
+        if (age >= 0) {
+            return age >= world.maxAge(x, y, z);
         }
         
         // Melon and pumpkin are always "mature" (they're the fruit, not the stem)
@@ -110,7 +93,8 @@ public class AutoFarmFeature implements Feature {
      * Check if a crop can be replanted.
      */
     public static boolean canReplant(Material crop) {
-        return REPLANTABLE_CROPS.contains(crop);
+        // The crops that grow from their own seed item
+        return MaterialIndex.isReplantable(crop);
     }
 
     /**
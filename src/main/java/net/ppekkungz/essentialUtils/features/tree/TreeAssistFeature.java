@@ -2,12 +2,16 @@ package net.ppekkungz.essentialUtils.features.tree;
 
 import net.ppekkungz.essentialUtils.config.PluginConfig;
 import net.ppekkungz.essentialUtils.features.Feature;
+import net.ppekkungz.essentialUtils.features.TargetStream;
 import net.ppekkungz.essentialUtils.util.BlockUtil;
 import net.ppekkungz.essentialUtils.util.LeafDropUtil;
+import net.ppekkungz.essentialUtils.util.MaterialIndex;
 import net.ppekkungz.essentialUtils.util.Materials;
+import net.ppekkungz.essentialUtils.world.BlockSource;
+import net.ppekkungz.essentialUtils.world.FloodFill;
+import net.ppekkungz.essentialUtils.world.KeyBuffer;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
-import org.bukkit.block.data.type.Leaves;
 import org.bukkit.entity.Player;
 
 import java.util.*;
@@ -43,95 +47,127 @@ public class TreeAssistFeature implements Feature {
     }
 
     @Override 
-    public Set<Block> collectTargets(Player p, Block origin) {
-        int limit = cfg.treeFellerMaxBlocks();
-        
-        // First, find the stump (lowest log)
-        Block stump = findStump(origin);
-        
-        // Verify this is a natural tree (has leaves nearby)
-        if (!hasNaturalLeavesNearby(origin, LEAF_CHECK_RADIUS)) {
-            return Collections.emptySet();
-        }
-        
-        // Determine tree type for leaf radius
-        LeafDropUtil.TreeType treeType = LeafDropUtil.getTreeTypeFromLog(origin.getType());
-        int maxLeafRadius = getLeafRadiusForTreeType(treeType);
-
-        Set<Block> result = new LinkedHashSet<>();
-        Set<Block> logs = new LinkedHashSet<>();
-        Set<Block> leaves = new LinkedHashSet<>();
-        Deque<Block> logQueue = new ArrayDeque<>();
-        
-        // Start BFS from stump for logs
-        logQueue.add(stump);
-        logs.add(stump);
-
-        // Collect all connected logs
-        while (!logQueue.isEmpty() && logs.size() < limit) {
-            Block b = logQueue.poll();
-            for (Block n : BlockUtil.neighbors27(b)) {
-                if (logs.size() >= limit) break;
-                if (!logs.contains(n) && Materials.isLog(n.getType(), true)) {
-                    logs.add(n);
-                    logQueue.add(n);
-                }
+    public KeyBuffer collectKeys(BlockSource world, long origin, int toolTier) {
+        TreeScan scan = new TreeScan(world, origin, cfg.treeFellerMaxBlocks(), false);
+        return scan.isDone() ? KeyBuffer.empty() : scan.next(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Logs first, then leaves, found a batch at a time; the canopy is still
+     * being discovered while the first logs break.
+     */
+    @Override
+    public TreeScan streamKeys(BlockSource world, long origin, int toolTier) {
+        return new TreeScan(world, origin, cfg.treeFellerMaxBlocks(), true);
+    }
+
+    /**
+     * The tree scan as a resumable state machine: logs BFS from the stump,
+     * then leaves spreading from every log, then leaves BFS. Logs are kept
+     * for the trunk center and the leaf pass; leaves are only handed out.
+     */
+    public final class TreeScan implements TargetStream {
+        private static final int LOGS_START = 0, LOGS = 1, LEAF_SEEDS = 2, LEAVES = 3, DONE = 4;
+
+        private final BlockSource world;
+        private final long stump;
+        private final int limit;
+        private final int leafRadius;
+        private final boolean detached;
+        private final KeyBuffer logs = new KeyBuffer();
+        private KeyBuffer out;
+        private FloodFill fill;
+        private FloodFill.Test leaf;
+        private int phase = LOGS_START;
+        private int seeded;
+
+        TreeScan(BlockSource world, long origin, int limit, boolean detached) {
+            this.world = world;
+            this.limit = limit;
+            this.detached = detached;
+
+            // First, find the stump (lowest log)
+            this.stump = findStump(world, origin);
+            
+            // Determine tree type for leaf radius
+            this.leafRadius = getLeafRadiusForTreeType(LeafDropUtil.getTreeTypeFromLog(world.type(origin)));
+
+            // Verify this is a natural tree (has leaves nearby)
+            if (!hasNaturalLeavesNearby(world, origin, LEAF_CHECK_RADIUS)) {
+                phase = DONE;
             }
         }
-        
-        // Calculate trunk center (average X/Z of all logs)
-        double centerX = 0, centerZ = 0;
-        for (Block log : logs) {
-            centerX += log.getX();
-            centerZ += log.getZ();
+
+        /**
+         * The lowest log of the trunk the scan starts from.
+         */
+        public long stump() {
+            return stump;
         }
-        centerX /= logs.size();
-        centerZ /= logs.size();
-        
-        final double trunkCenterX = centerX;
-        final double trunkCenterZ = centerZ;
-        final int leafRadius = maxLeafRadius;
-
-        // Now collect natural leaves connected to the logs
-        // BUT limited to within leafRadius horizontally from trunk center
-        Set<Block> visited = new HashSet<>(logs);
-        Deque<Block> leafQueue = new ArrayDeque<>();
-        
-        // Start from blocks adjacent to logs
-        for (Block log : logs) {
-            for (Block n : BlockUtil.neighbors27(log)) {
-                if (isNaturalLeaf(n) && !visited.contains(n)) {
-                    // Check horizontal distance from trunk center
-                    if (isWithinLeafRadius(n, trunkCenterX, trunkCenterZ, leafRadius)) {
-                        leafQueue.add(n);
-                        visited.add(n);
-                        leaves.add(n);
-                    }
+
+        @Override
+        public boolean isDone() {
+            return phase == DONE;
+        }
+
+        @Override
+        public KeyBuffer next(int max) {
+            if (phase == DONE) return KeyBuffer.empty();
+            if (phase == LOGS_START) {
+                // A resumed fill gets its own state; a one-shot one uses this thread's
+                out = new KeyBuffer(detached ? Math.min(max, 256) : Math.min(limit, 256));
+                fill = detached ? FloodFill.detached(world, out) : FloodFill.begin(world, out);
+                fill.add(stump);
+                phase = LOGS;
+            } else {
+                out.clear();
+            }
+
+            // Collect all connected logs, BFS from the stump
+            if (phase == LOGS) {
+                boolean more = fill.step(FloodFill.Connectivity.CORNERS,
+                    (w, x, y, z) -> Materials.isLog(w.type(x, y, z), true), limit, max);
+                for (int i = 0; i < out.size(); i++) {
+                    logs.add(out.get(i));
                 }
+                if (more) return out;
+                startLeaves();
             }
-        }
-        
-        // BFS through connected natural leaves (with horizontal radius limit)
-        while (!leafQueue.isEmpty() && (logs.size() + leaves.size()) < limit) {
-            Block b = leafQueue.poll();
-            for (Block n : BlockUtil.neighbors27(b)) {
-                if ((logs.size() + leaves.size()) >= limit) break;
-                if (!visited.contains(n) && isNaturalLeaf(n)) {
-                    // Check horizontal distance from trunk center
-                    if (isWithinLeafRadius(n, trunkCenterX, trunkCenterZ, leafRadius)) {
-                        visited.add(n);
-                        leaves.add(n);
-                        leafQueue.add(n);
-                    }
+
+            // Start from blocks adjacent to logs...
+            if (phase == LEAF_SEEDS) {
+                while (seeded < logs.size() && out.size() < max) {
+                    fill.spread(logs.get(seeded++), FloodFill.Connectivity.CORNERS, leaf, limit);
                 }
+                if (seeded < logs.size()) return out;
+                phase = LEAVES;
             }
+
+            // ...then BFS through connected leaves
+            if (!fill.step(FloodFill.Connectivity.CORNERS, leaf, limit, max)) {
+                fill.end();
+                phase = DONE;
+            }
+            return out;
         }
 
-        // Add logs first, then leaves (logs break first)
-        result.addAll(logs);
-        result.addAll(leaves);
-        
-        return result;
+        /**
+         * Natural leaves connected to the logs, limited to within the leaf
+         * radius horizontally from the trunk center (average X/Z of all logs).
+         */
+        private void startLeaves() {
+            double centerX = 0, centerZ = 0;
+            for (int i = 0; i < logs.size(); i++) {
+                centerX += logs.x(i);
+                centerZ += logs.z(i);
+            }
+            final double trunkCenterX = centerX / logs.size();
+            final double trunkCenterZ = centerZ / logs.size();
+            
+            leaf = (w, x, y, z) -> isNaturalLeaf(w, x, y, z)
+                && isWithinLeafRadius(x, z, trunkCenterX, trunkCenterZ, leafRadius);
+            phase = LEAF_SEEDS;
+        }
     }
     
     /**
@@ -164,9 +200,9 @@ public class TreeAssistFeature implements Feature {
      * Check if a block is within the allowed horizontal radius from trunk center.
      * Y is unlimited to handle tall trees.
      */
-    private boolean isWithinLeafRadius(Block block, double centerX, double centerZ, int maxRadius) {
-        double dx = block.getX() + 0.5 - centerX;
-        double dz = block.getZ() + 0.5 - centerZ;
+    private boolean isWithinLeafRadius(int x, int z, double centerX, double centerZ, int maxRadius) {
+        double dx = x + 0.5 - centerX;
+        double dz = z + 0.5 - centerZ;
         double distanceSquared = dx * dx + dz * dz;
         return distanceSquared <= maxRadius * maxRadius;
     }
@@ -174,11 +210,11 @@ public class TreeAssistFeature implements Feature {
     /**
      * Find the lowest contiguous log block (stump).
      */
-    private Block findStump(Block start) {
-        Block cur = start;
-        while (Materials.isLog(cur.getType(), true)) {
-            Block below = cur.getRelative(0, -1, 0);
-            if (Materials.isLog(below.getType(), true)) {
+    private long findStump(BlockSource world, long start) {
+        long cur = start;
+        while (Materials.isLog(world.type(cur), true)) {
+            long below = BlockUtil.relative(cur, 0, -1, 0);
+            if (Materials.isLog(world.type(below), true)) {
                 cur = below;
             } else {
                 break;
@@ -190,12 +226,12 @@ public class TreeAssistFeature implements Feature {
     /**
      * Check if there are natural (non-persistent) leaves nearby.
      */
-    private boolean hasNaturalLeavesNearby(Block origin, int radius) {
+    private boolean hasNaturalLeavesNearby(BlockSource world, long origin, int radius) {
         for (int dx = -radius; dx <= radius; dx++) {
             for (int dy = -radius; dy <= radius; dy++) {
                 for (int dz = -radius; dz <= radius; dz++) {
-                    Block b = origin.getRelative(dx, dy, dz);
-                    if (isNaturalLeaf(b)) {
+                    long b = BlockUtil.relative(origin, dx, dy, dz);
+                    if (isNaturalLeaf(world, b)) {
                         return true;
                     }
                 }
@@ -207,18 +243,18 @@ public class TreeAssistFeature implements Feature {
     /**
      * Check if a block is a natural (not player-placed) leaf.
      */
-    private boolean isNaturalLeaf(Block block) {
-        if (!block.getType().name().endsWith("_LEAVES")) {
+    private boolean isNaturalLeaf(BlockSource world, long block) {
+        return isNaturalLeaf(world, Block.getBlockKeyX(block), Block.getBlockKeyY(block), Block.getBlockKeyZ(block));
+    }
+
+    private boolean isNaturalLeaf(BlockSource world, int x, int y, int z) {
+        if (!MaterialIndex.isLeaf(world.type(x, y, z))) {
             return false;
         }
         
-        if (block.getBlockData() instanceof Leaves leaves) {
-            // persistent=false means it was naturally generated
-            // persistent=true means player-placed
-            return !leaves.isPersistent();
-        }
-        
-        return false;
+        // persistent=false means it was naturally generated
+        // persistent=true means player-placed
+        return !world.isPersistentLeaf(x, y, z);
     }
 
     /**
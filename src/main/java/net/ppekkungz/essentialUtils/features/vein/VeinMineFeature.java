@@ -2,12 +2,15 @@ package net.ppekkungz.essentialUtils.features.vein;
 
 import net.ppekkungz.essentialUtils.config.PluginConfig;
 import net.ppekkungz.essentialUtils.features.Feature;
-import net.ppekkungz.essentialUtils.util.BlockUtil;
+import net.ppekkungz.essentialUtils.features.TargetStream;
 import net.ppekkungz.essentialUtils.util.HarvestUtil;
+import net.ppekkungz.essentialUtils.util.MaterialIndex;
+import net.ppekkungz.essentialUtils.world.BlockSource;
+import net.ppekkungz.essentialUtils.world.FloodFill;
+import net.ppekkungz.essentialUtils.world.KeyBuffer;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
-import org.bukkit.inventory.ItemStack;
 
 import java.util.*;
 
@@ -19,19 +22,13 @@ import java.util.*;
 public class VeinMineFeature implements Feature {
     private final PluginConfig cfg;
     
-    // All mineable ores
-    private static final Set<Material> ORES = new HashSet<>();
+    // All mineable ores (standard ores and ancient debris)
+    private static final Set<Material> ORES = EnumSet.noneOf(Material.class);
     
     static {
-        // Standard ores
         for (Material m : Material.values()) {
-            String name = m.name();
-            if (name.endsWith("_ORE") && m.isBlock()) {
-                ORES.add(m);
-            }
+            if (MaterialIndex.isOre(m)) ORES.add(m);
         }
-        // Ancient debris
-        ORES.add(Material.ANCIENT_DEBRIS);
     }
 
     public VeinMineFeature(PluginConfig cfg) {
@@ -51,52 +48,80 @@ public class VeinMineFeature implements Feature {
     }
 
     @Override 
-    public Set<Block> collectTargets(Player p, Block origin) {
-        int limit = cfg.veinMinerMaxOres();
-        Material ore = origin.getType();
-        
-        // Check if player's pickaxe tier is sufficient
-        ItemStack tool = p.getInventory().getItemInMainHand();
-        int playerTier = HarvestUtil.pickaxeTier(tool);
-        int requiredTier = HarvestUtil.requiredTierForOre(ore);
-        
-        if (playerTier < requiredTier) {
-            return Collections.emptySet();
-        }
-        
-        Set<Block> result = new LinkedHashSet<>();
-        Deque<Block> queue = new ArrayDeque<>();
-        
-        queue.add(origin);
-        result.add(origin);
-
-        // BFS using 26-neighbor search (3x3x3 cube, includes diagonals)
-        while (!queue.isEmpty() && result.size() < limit) {
-            Block b = queue.poll();
+    public KeyBuffer collectKeys(BlockSource world, long origin, int playerTier) {
+        VeinScan scan = new VeinScan(world, origin, playerTier, cfg.veinMinerMaxOres(), false);
+        return scan.isDone() ? KeyBuffer.empty() : scan.next(Integer.MAX_VALUE);
+    }
+
+    /**
+     * The vein found a batch at a time.
+     */
+    @Override
+    public TargetStream streamKeys(BlockSource world, long origin, int playerTier) {
+        return new VeinScan(world, origin, playerTier, cfg.veinMinerMaxOres(), true);
+    }
+
+    /**
+     * Resumable BFS through the vein from the broken ore.
+     */
+    private static final class VeinScan implements TargetStream {
+        private final BlockSource world;
+        private final long origin;
+        private final int limit;
+        private final boolean detached;
+        private final FloodFill.Test sameOre;
+        private KeyBuffer out;
+        private FloodFill fill;
+        private boolean done;
+
+        VeinScan(BlockSource world, long origin, int playerTier, int limit, boolean detached) {
+            this.world = world;
+            this.origin = origin;
+            this.limit = limit;
+            this.detached = detached;
+            Material ore = world.type(origin);
+            
+            // Same ore type (including deepslate variants) the player can mine
+            this.sameOre = (w, x, y, z) -> {
+                Material type = w.type(x, y, z);
+                return isSameOreType(ore, type) && playerTier >= HarvestUtil.requiredTierForOre(type);
+            };
             
-            // Use neighbors27 for diagonal ore detection
-            for (Block n : BlockUtil.neighbors27(b)) {
-                if (result.size() >= limit) break;
-                
-                // Match same ore type (including deepslate variants)
-                if (!result.contains(n) && isSameOreType(ore, n.getType())) {
-                    // Verify player can mine this block
-                    if (playerTier >= HarvestUtil.requiredTierForOre(n.getType())) {
-                        result.add(n);
-                        queue.add(n);
-                    }
-                }
+            // Check if player's pickaxe tier is sufficient
+            this.done = playerTier < HarvestUtil.requiredTierForOre(ore);
+        }
+
+        @Override
+        public boolean isDone() {
+            return done;
+        }
+
+        @Override
+        public KeyBuffer next(int max) {
+            if (done) return KeyBuffer.empty();
+            if (fill == null) {
+                // A resumed fill gets its own state; a one-shot one uses this thread's
+                out = new KeyBuffer(Math.min(detached ? max : limit, 64));
+                fill = detached ? FloodFill.detached(world, out) : FloodFill.begin(world, out);
+                fill.add(origin);
+            } else {
+                out.clear();
+            }
+
+            // BFS using 26-neighbor search (3x3x3 cube, includes diagonals)
+            if (!fill.step(FloodFill.Connectivity.CORNERS, sameOre, limit, max)) {
+                fill.end();
+                done = true;
             }
+            return out;
         }
-        
-        return result;
     }
 
     /**
      * Check if a material is an ore.
      */
     public static boolean isOre(Material m) {
-        return ORES.contains(m);
+        return MaterialIndex.isOre(m);
     }
 
     /**
@@ -104,22 +129,7 @@ public class VeinMineFeature implements Feature {
      * For example, COAL_ORE and DEEPSLATE_COAL_ORE are considered the same.
      */
     public static boolean isSameOreType(Material ore1, Material ore2) {
-        if (ore1 == ore2) return true;
-        
-        String name1 = normalizeOreName(ore1.name());
-        String name2 = normalizeOreName(ore2.name());
-        
-        return name1.equals(name2);
-    }
-
-    /**
-     * Normalize ore name by removing DEEPSLATE_ prefix.
-     */
-    private static String normalizeOreName(String name) {
-        if (name.startsWith("DEEPSLATE_")) {
-            return name.substring("DEEPSLATE_".length());
-        }
-        return name;
+        return ore1 == ore2 || MaterialIndex.family(ore1) == MaterialIndex.family(ore2);
     }
 
     /**
@@ -8,11 +8,21 @@ import net.ppekkungz.essentialUtils.features.tree.TreeAssistFeature;
 import net.ppekkungz.essentialUtils.features.vein.VeinMineFeature;
 import net.ppekkungz.essentialUtils.indicator.ActionBarService;
 import net.ppekkungz.essentialUtils.indicator.TabMenuService;
-import net.ppekkungz.essentialUtils.state.PlayerState;
 import net.ppekkungz.essentialUtils.state.StateManager;
+import net.ppekkungz.essentialUtils.util.HarvestUtil;
+import net.ppekkungz.essentialUtils.util.MaterialIndex;
 import net.ppekkungz.essentialUtils.util.Materials;
+import net.ppekkungz.essentialUtils.util.Protection;
+import net.ppekkungz.essentialUtils.work.Job;
+import net.ppekkungz.essentialUtils.work.ScanService;
+import net.ppekkungz.essentialUtils.work.TargetFeed;
+import net.ppekkungz.essentialUtils.work.WorkBatch;
 import net.ppekkungz.essentialUtils.work.WorkItem;
+import net.ppekkungz.essentialUtils.work.WorkMetrics;
 import net.ppekkungz.essentialUtils.work.WorkService;
+import net.ppekkungz.essentialUtils.world.BlockSource;
+import net.ppekkungz.essentialUtils.world.BukkitWorld;
+import net.ppekkungz.essentialUtils.world.KeyBuffer;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
@@ -21,13 +31,15 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockDamageAbortEvent;
+import org.bukkit.event.block.BlockDamageEvent;
+import org.bukkit.event.player.PlayerItemHeldEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerToggleSneakEvent;
 import org.bukkit.inventory.ItemStack;
 
-import java.util.Set;
-
 /**
  * Handles feature activation based on tool usage and sneaking.
  * 
@@ -69,15 +81,15 @@ public class ActivationListener implements Listener {
     // ==================== TOOL CHECKS ====================
     
     private boolean isAxe(ItemStack it) { 
-        return it != null && it.getType().name().endsWith("_AXE"); 
+        return it != null && MaterialIndex.isAxe(it.getType()); 
     }
     
     private boolean isPick(ItemStack it) { 
-        return it != null && it.getType().name().endsWith("_PICKAXE"); 
+        return it != null && MaterialIndex.isPickaxe(it.getType()); 
     }
     
     private boolean isHoe(ItemStack it) { 
-        return it != null && it.getType().name().endsWith("_HOE"); 
+        return it != null && MaterialIndex.isHoe(it.getType()); 
     }
 
     // ==================== PLAYER JOIN/QUIT ====================
@@ -90,6 +102,9 @@ public class ActivationListener implements Listener {
         if (tabMenu != null) {
             tabMenu.onPlayerJoin(p);
         }
+        
+        // Pick up jobs left unfinished by a crash or restart
+        work.resume(p);
     }
 
     // ==================== SNEAK HANDLING (Tree Feller Indicator) ====================
@@ -120,8 +135,8 @@ public class ActivationListener implements Listener {
         Block b = e.getBlock();
         ItemStack hand = p.getInventory().getItemInMainHand();
         
-        // Skip if player is already processing
-        if (states.isActive(p)) {
+        // Skip if player already has as many jobs running (or being scanned) as allowed
+        if (states.jobCount(p) + work.scans().pending(p) >= cfg.maxJobsPerPlayer()) {
             return;
         }
 
@@ -155,13 +170,83 @@ public class ActivationListener implements Listener {
         }
     }
 
+    // ==================== PRE-SCAN ====================
+
+    /**
+     * Start scanning the tree or vein while the player is still mining its
+     * first block, so the break can start the job right away.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockDamage(BlockDamageEvent e) {
+        // Instant breaks follow in the same tick, before any scan could finish
+        if (!cfg.preScan() || e.getInstaBreak()) return;
+        
+        Player p = e.getPlayer();
+        Block b = e.getBlock();
+        ItemStack hand = e.getItemInHand();
+        
+        if (cfg.treeFellerEnabled() && isAxe(hand) && tree.canTrigger(p, b)) {
+            work.scans().preScan(p, b, WorkItem.FeatureTag.TREE, -1, cfg.asyncScanChunkRadius(),
+                (world, key) -> tree.collectKeys(world, key, -1));
+        } else if (cfg.veinMinerEnabled() && isPick(hand) && vein.canTrigger(p, b)) {
+            int tier = HarvestUtil.toolTier(hand.getType());
+            work.scans().preScan(p, b, WorkItem.FeatureTag.VEIN, tier, cfg.asyncScanChunkRadius(),
+                (world, key) -> vein.collectKeys(world, key, tier));
+        }
+    }
+
+    /**
+     * The player stopped mining; their pre-scan won't be used.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onBlockDamageAbort(BlockDamageAbortEvent e) {
+        if (cfg.preScan()) {
+            work.scans().cancelPreScan(e.getPlayer());
+        }
+    }
+
     // ==================== FEATURE HANDLERS ====================
 
     /**
      * Handle Tree Feller activation.
      */
     private void handleTreeFeller(Player p, Block origin, BlockBreakEvent e) {
-        Set<Block> targets = tree.collectTargets(p, origin);
+        Location at = origin.getLocation();
+        Material logType = origin.getType();
+        
+        ScanService.Prepared warm = cfg.preScan()
+            ? work.scans().takePreScan(p, origin, WorkItem.FeatureTag.TREE, -1, cfg.preScanMaxAgeMillis())
+            : null;
+        if (warm != null) {
+            if (warm.targets().isEmpty()) return; // Let normal break happen
+            e.setCancelled(true);
+            if (!startTreeFeller(p, at, logType, warm.world(), warm.targets(), null)) {
+                e.setCancelled(false); // Refused - let the block break normally
+            }
+            return;
+        }
+        
+        if (cfg.asyncScan()) {
+            // The player's break goes ahead; the job skips the already broken origin
+            work.scans().submit(p, at, WorkItem.FeatureTag.TREE,
+                work.held(p, WorkItem.FeatureTag.TREE), cfg.asyncScanChunkRadius(),
+                (world, key) -> tree.collectKeys(world, key, -1),
+                (world, targets, held) -> startTreeFeller(p, at, logType, world, targets, held));
+            return;
+        }
+        
+        if (cfg.stream()) {
+            e.setCancelled(true);
+            if (!streamTreeFeller(p, origin)) {
+                e.setCancelled(false); // Not a tree, or refused - let the block break normally
+            }
+            return;
+        }
+        
+        long t0 = System.nanoTime();
+        BukkitWorld world = new BukkitWorld(origin.getWorld());
+        KeyBuffer targets = tree.collectKeys(world, origin.getBlockKey(), -1);
+        work.metrics().record(WorkMetrics.Timer.COLLECT, WorkItem.FeatureTag.TREE, System.nanoTime() - t0);
         
         if (targets.isEmpty()) {
             return; // Let normal break happen
@@ -169,52 +254,116 @@ public class ActivationListener implements Listener {
         
         // Cancel the original break event - we'll handle it
         e.setCancelled(true);
+        if (!startTreeFeller(p, at, logType, world, targets, null)) {
+            e.setCancelled(false); // Refused - let the block break normally
+        }
+    }
+
+    /**
+     * Queue a felled tree's blocks, with the tool {@code held} when the scan
+     * was triggered (null to take the one held now). Returns false if
+     * nothing was queued.
+     */
+    private boolean startTreeFeller(Player p, Location origin, Material logType, BlockSource world,
+                                    KeyBuffer targets, WorkService.Held held) {
+        if (targets.isEmpty()) return false;
         
         // Find stump for replanting
-        Block stump = findStump(targets);
-        Material logType = origin.getType();
-        Location stumpLocation = stump != null ? stump.getLocation() : origin.getLocation();
+        Long stump = findStump(world, targets);
+        Location stumpLocation = stump != null
+            ? new Location(origin.getWorld(), Block.getBlockKeyX(stump), Block.getBlockKeyY(stump), Block.getBlockKeyZ(stump))
+            : origin;
         
-        // Start tracking
-        states.startTreeFeller(p, logType, stumpLocation);
-        states.set(p, PlayerState.ACTIVE);
-        
-        // Queue all blocks
-        int idx = 0;
-        for (Block tb : targets) {
-            boolean isLeaf = tb.getType().name().endsWith("_LEAVES");
-            int delay = idx; // Simple stagger
-            
-            if (isLeaf) {
-                work.queue(p).add(WorkItem.breakLeaf(p, tb, delay));
-            } else {
-                work.queue(p).add(WorkItem.breakLog(p, tb, delay));
-            }
-            idx++;
-        }
-        
-        // Queue sapling replant if enabled
-        // Plant at stump position (where the bottom log was, now will be air)
-        if (cfg.treeFellerReplant() && stump != null) {
-            Material sapling = TreeAssistFeature.saplingForLog(logType);
-            Block plantPos = stump; // Plant where the stump log was (on top of dirt/grass)
-            
-            // Delay replant to after tree is broken
-            p.getScheduler().runDelayed(plugin, task -> {
-                work.queue(p).add(WorkItem.plantSapling(p, plantPos, sapling, 10));
-            }, null, 20L);
+        // Queue all blocks, and the sapling if replanting is enabled
+        Job job = Job.treeFeller(p, origin, logType, stumpLocation);
+        WorkBatch batch = treeBatch(world, targets, stump,
+            cfg.treeFellerReplant() ? TreeAssistFeature.saplingForLog(logType) : null, !cfg.bulkApply());
+        if (!(held != null ? work.submit(job, batch, held) : work.submit(job, batch))) {
+            return false;
         }
         
-        // Clear persistent indicator and start work loop
+        // Clear persistent indicator
         actionBar.clearPersistent(p);
-        work.ensureLoop(p);
+        return true;
+    }
+
+    /**
+     * Fell a tree while it is still being scanned: logs start breaking while
+     * the canopy is discovered. Returns false if nothing was queued.
+     */
+    private boolean streamTreeFeller(Player p, Block origin) {
+        BukkitWorld world = new BukkitWorld(origin.getWorld());
+        TreeAssistFeature.TreeScan scan = tree.streamKeys(world, origin.getBlockKey(), -1);
+        if (scan.isDone()) return false; // Not a natural tree
+        
+        // Drops and the sapling go to the stump the scan starts from
+        long stump = scan.stump();
+        Location stumpLocation = new Location(origin.getWorld(),
+            Block.getBlockKeyX(stump), Block.getBlockKeyY(stump), Block.getBlockKeyZ(stump));
+        Material logType = origin.getType();
+        Material sapling = cfg.treeFellerReplant() ? TreeAssistFeature.saplingForLog(logType) : null;
+        
+        Job job = Job.treeFeller(p, origin.getLocation(), logType, stumpLocation);
+        boolean started = work.feed(job, scan, new TargetFeed.Batcher() {
+            @Override
+            public WorkBatch batch(KeyBuffer targets, int first, long tick) {
+                return treeBatch(world, targets, first, tick, !cfg.bulkApply());
+            }
+
+            @Override
+            public WorkBatch last(long tick) {
+                if (sapling == null) return null;
+                return new WorkBatch(1).addPlant(stump, sapling, (int) Math.max(0, 20 - tick), 10);
+            }
+        }, 1);
+        
+        if (started) actionBar.clearPersistent(p);
+        return started;
     }
 
     /**
      * Handle VeinMiner activation.
      */
     private void handleVeinMiner(Player p, Block origin, BlockBreakEvent e) {
-        Set<Block> targets = vein.collectTargets(p, origin);
+        Location at = origin.getLocation();
+        Material ore = origin.getType();
+        // Tool tier now, while the player still holds the tool that broke the block
+        int tier = HarvestUtil.toolTier(p.getInventory().getItemInMainHand().getType());
+        
+        ScanService.Prepared warm = cfg.preScan()
+            ? work.scans().takePreScan(p, origin, WorkItem.FeatureTag.VEIN, tier, cfg.preScanMaxAgeMillis())
+            : null;
+        if (warm != null) {
+            if (warm.targets().size() <= 1) return; // Single ore, let normal break happen
+            e.setCancelled(true);
+            if (!startVeinMiner(p, at, ore, warm.targets(), null)) {
+                e.setCancelled(false); // Refused - let the block break normally
+            }
+            return;
+        }
+        
+        if (cfg.asyncScan()) {
+            work.scans().submit(p, at, WorkItem.FeatureTag.VEIN,
+                work.held(p, WorkItem.FeatureTag.VEIN), cfg.asyncScanChunkRadius(),
+                (world, key) -> vein.collectKeys(world, key, tier),
+                (world, targets, held) -> startVeinMiner(p, at, ore, targets, held));
+            return;
+        }
+        
+        if (cfg.stream()) {
+            e.setCancelled(true);
+            boolean started = work.feed(Job.veinMine(p, at, ore),
+                vein.streamKeys(new BukkitWorld(origin.getWorld()), origin.getBlockKey(), tier),
+                (targets, first, tick) -> veinBatch(targets, first, tick, !cfg.bulkApply()), 2);
+            if (!started) {
+                e.setCancelled(false); // Single ore, or refused - let the block break normally
+            }
+            return;
+        }
+        
+        long t0 = System.nanoTime();
+        KeyBuffer targets = vein.collectKeys(p, origin);
+        work.metrics().record(WorkMetrics.Timer.COLLECT, WorkItem.FeatureTag.VEIN, System.nanoTime() - t0);
         
         if (targets.isEmpty() || targets.size() == 1) {
             return; // Single ore, let normal break happen
@@ -222,27 +371,31 @@ public class ActivationListener implements Listener {
         
         // Cancel the original break event - we'll handle it
         e.setCancelled(true);
-        
-        // Start tracking
-        states.startVeinMine(p, origin.getLocation(), origin.getType());
-        states.set(p, PlayerState.ACTIVE);
-        
-        // Queue all ores
-        int idx = 0;
-        for (Block ore : targets) {
-            int delay = idx / 4; // Break 4 per tick
-            work.queue(p).add(WorkItem.breakOre(p, ore, delay));
-            idx++;
+        if (!startVeinMiner(p, at, ore, targets, null)) {
+            e.setCancelled(false); // Refused - let the block break normally
         }
-        
-        work.ensureLoop(p);
+    }
+
+    /**
+     * Queue a vein's ores, with the tool {@code held} when the scan was
+     * triggered (null to take the one held now). Returns false if nothing
+     * was queued.
+     */
+    private boolean startVeinMiner(Player p, Location origin, Material ore, KeyBuffer targets,
+                                   WorkService.Held held) {
+        if (targets.size() <= 1) return false; // Single ore
+        Job job = Job.veinMine(p, origin, ore);
+        WorkBatch batch = veinBatch(targets, !cfg.bulkApply());
+        return held != null ? work.submit(job, batch, held) : work.submit(job, batch);
     }
 
     /**
      * Handle AutoFarm activation.
      */
     private void handleAutoFarm(Player p, Block origin, BlockBreakEvent e) {
-        Set<Block> targets = farm.collectTargets(p, origin);
+        long t0 = System.nanoTime();
+        KeyBuffer targets = farm.collectKeys(p, origin);
+        work.metrics().record(WorkMetrics.Timer.COLLECT, WorkItem.FeatureTag.FARM, System.nanoTime() - t0);
         
         if (targets.isEmpty() || targets.size() == 1) {
             return; // Single crop, let normal break happen
@@ -251,14 +404,11 @@ public class ActivationListener implements Listener {
         // Cancel the original break event - we'll handle it
         e.setCancelled(true);
         
-        states.set(p, PlayerState.ACTIVE);
-        
         // Queue all crops
-        for (Block crop : targets) {
-            work.queue(p).add(WorkItem.breakCrop(p, crop));
+        WorkBatch batch = farmBatch(targets);
+        if (!work.submit(Job.autoFarm(p, origin.getLocation()), batch)) {
+            e.setCancelled(false); // Refused - let the block break normally
         }
-        
-        work.ensureLoop(p);
     }
 
     /**
@@ -286,20 +436,102 @@ public class ActivationListener implements Listener {
         }
     }
 
+    // ==================== WORK BATCHES ====================
+    // Static so the load simulation can build the same work headless
+
+    /**
+     * Work for a felled tree: blocks in scan order, staggered one per tick
+     * if {@code stagger}, then a sapling at the stump (none if either is
+     * null).
+     *
+     * Without the stagger every block is due at once and the tick budget
+     * alone paces the job, so each tick removes a contiguous run of blocks
+     * that bulk apply can mostly do with physics off. Staggered, a tick
+     * removes one block, which always borders blocks still standing.
+     */
+    public static WorkBatch treeBatch(BlockSource world, KeyBuffer targets, Long stump, Material sapling,
+                                      boolean stagger) {
+        WorkBatch batch = treeBatch(world, targets, 0, 0, stagger);
+        
+        // Plant at stump position (where the bottom log was, now will be air)
+        if (sapling != null && stump != null) {
+            // Delay replant to after tree is broken; part of the job so it
+            // isn't summarised before the sapling is in
+            batch.addPlant(stump, sapling, 20, 10);
+        }
+        return batch;
+    }
+
+    /**
+     * Work for a tree's targets from index {@code first} on, found
+     * {@code tick} ticks after the job started; if staggered, still one
+     * block per tick counted from the start.
+     */
+    public static WorkBatch treeBatch(BlockSource world, KeyBuffer targets, int first, long tick,
+                                      boolean stagger) {
+        // Room for a sapling
+        WorkBatch batch = new WorkBatch(targets.size() + 1);
+        for (int idx = 0; idx < targets.size(); idx++) {
+            long tb = targets.get(idx);
+            boolean isLeaf = MaterialIndex.isLeaf(world.type(tb));
+            int delay = stagger ? (int) Math.max(0, first + idx - tick) : 0; // Simple stagger
+            
+            if (isLeaf) {
+                batch.addLeaf(tb, delay);
+            } else {
+                batch.addBreak(tb, delay);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Work for an ore vein, 4 ores per tick if {@code stagger}, otherwise
+     * all due at once (see {@link #treeBatch(BlockSource, KeyBuffer, Long, Material, boolean)}).
+     */
+    public static WorkBatch veinBatch(KeyBuffer targets, boolean stagger) {
+        return veinBatch(targets, 0, 0, stagger);
+    }
+
+    /**
+     * Work for a vein's ores from index {@code first} on, found
+     * {@code tick} ticks after the job started.
+     */
+    public static WorkBatch veinBatch(KeyBuffer targets, int first, long tick, boolean stagger) {
+        WorkBatch batch = new WorkBatch(targets.size());
+        for (int idx = 0; idx < targets.size(); idx++) {
+            int delay = stagger ? (int) Math.max(0, (first + idx) / 4 - tick) : 0; // Break 4 per tick
+            batch.addBreak(targets.get(idx), delay);
+        }
+        return batch;
+    }
+
+    /**
+     * Work for a field of crops, all at once.
+     */
+    public static WorkBatch farmBatch(KeyBuffer targets) {
+        WorkBatch batch = new WorkBatch(targets.size());
+        for (int i = 0; i < targets.size(); i++) {
+            batch.addBreak(targets.get(i), 0);
+        }
+        return batch;
+    }
+
     // ==================== UTILITY METHODS ====================
 
     /**
-     * Find the lowest log block (stump) from a set of blocks.
+     * Find the lowest log block (stump) from a set of blocks, null if none.
      */
-    private Block findStump(Set<Block> logs) {
-        Block best = null;
+    public static Long findStump(BlockSource world, KeyBuffer logs) {
+        Long best = null;
         int bestY = Integer.MAX_VALUE;
         
-        for (Block b : logs) {
+        for (int i = 0; i < logs.size(); i++) {
+            long b = logs.get(i);
             // Only consider logs, not leaves
-            if (Materials.isLog(b.getType(), true)) {
-                if (b.getY() < bestY) {
-                    bestY = b.getY();
+            if (Materials.isLog(world.type(b), true)) {
+                if (Block.getBlockKeyY(b) < bestY) {
+                    bestY = Block.getBlockKeyY(b);
                     best = b;
                 }
             }
@@ -307,6 +539,26 @@ public class ActivationListener implements Listener {
         return best;
     }
 
+    // ==================== PREEMPTION ====================
+
+    /**
+     * Stop jobs started with a different tool than the one now held.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemHeld(PlayerItemHeldEvent e) {
+        Player p = e.getPlayer();
+        work.onToolChanged(p, p.getInventory().getItem(e.getNewSlot()));
+    }
+
+    /**
+     * Stop jobs the player has walked away from.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onMove(PlayerMoveEvent e) {
+        if (!e.hasChangedBlock()) return;
+        work.onPlayerMoved(e.getPlayer(), e.getTo());
+    }
+
     // ==================== CLEANUP ====================
 
     @EventHandler
@@ -314,6 +566,7 @@ public class ActivationListener implements Listener {
         Player p = e.getPlayer();
         actionBar.cleanup(p);
         work.stopLoop(p);
-        states.reset(p);
+        work.scans().cancelPreScan(p);
+        Protection.invalidate(p);
     }
 }
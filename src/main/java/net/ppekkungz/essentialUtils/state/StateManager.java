@@ -1,144 +1,96 @@
 package net.ppekkungz.essentialUtils.state;
 
-import net.ppekkungz.essentialUtils.util.LeafDropUtil;
-import net.ppekkungz.essentialUtils.work.VeinMineResult;
-import org.bukkit.Location;
-import org.bukkit.Material;
+import net.ppekkungz.essentialUtils.work.Job;
 import org.bukkit.entity.Player;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Manages per-player state for EssentialUtils features.
  * Thread-safe for Folia (uses concurrent maps).
+ *
+ * A player's state follows their running jobs: ACTIVE while at least one
+ * is in flight. Each {@link Job} carries its own results, so several can
+ * run at once without sharing per-player tracking.
  */
 public class StateManager {
 
-    private final Map<UUID, PlayerState> states = new ConcurrentHashMap<>();
-    
-    // VeinMiner result tracking per player
-    private final Map<UUID, VeinMineResult> veinMineResults = new ConcurrentHashMap<>();
-    
-    // TreeFeller result tracking per player
-    private final Map<UUID, LeafDropUtil.TreeFellerResult> treeFellerResults = new ConcurrentHashMap<>();
-    private final Map<UUID, Material> treeFellerLogTypes = new ConcurrentHashMap<>();
-    private final Map<UUID, Location> treeFellerStumpLocations = new ConcurrentHashMap<>();
+    // Jobs in flight per player
+    private final Map<UUID, Set<Job>> jobs = new ConcurrentHashMap<>();
 
     // ==================== STATE MANAGEMENT ====================
 
     /**
-     * Get current state (defaults to IDLE).
+     * Get current state (ACTIVE while any job is running).
      */
     public PlayerState get(Player p) {
-        return states.getOrDefault(p.getUniqueId(), PlayerState.IDLE);
-    }
-
-    /**
-     * Set current state.
-     */
-    public void set(Player p, PlayerState s) {
-        states.put(p.getUniqueId(), s);
+        return isActive(p) ? PlayerState.ACTIVE : PlayerState.IDLE;
     }
 
     /**
      * Check if player is actively processing.
      */
     public boolean isActive(Player p) {
-        return get(p) == PlayerState.ACTIVE;
+        return jobCount(p) > 0;
     }
 
-    // ==================== VEINMINER RESULTS ====================
-
-    /**
-     * Start tracking a new VeinMiner session.
-     */
-    public VeinMineResult startVeinMine(Player p, Location origin, Material oreType) {
-        VeinMineResult result = new VeinMineResult(origin, oreType);
-        veinMineResults.put(p.getUniqueId(), result);
-        return result;
-    }
+    // ==================== JOBS ====================
 
     /**
-     * Get current VeinMiner result (or null if none).
+     * Track a newly started job.
      */
-    public VeinMineResult getVeinMineResult(Player p) {
-        return veinMineResults.get(p.getUniqueId());
+    public void addJob(Job job) {
+        // Add under the map's lock, so a removeJob emptying the set can't drop it first
+        jobs.compute(job.player.getUniqueId(), (id, set) -> {
+            if (set == null) set = ConcurrentHashMap.newKeySet();
+            set.add(job);
+            return set;
+        });
     }
 
     /**
-     * End VeinMiner session and return results.
+     * Stop tracking a finished job. Returns false if it wasn't tracked.
      */
-    public VeinMineResult endVeinMine(Player p) {
-        return veinMineResults.remove(p.getUniqueId());
+    public boolean removeJob(Job job) {
+        boolean[] removed = {false};
+        jobs.computeIfPresent(job.player.getUniqueId(), (id, set) -> {
+            removed[0] = set.remove(job);
+            return set.isEmpty() ? null : set;
+        });
+        return removed[0];
     }
 
-    // ==================== TREEFELLER RESULTS ====================
-
     /**
-     * Start tracking a new TreeFeller session.
+     * Jobs currently running for a player (live view, empty if none).
      */
-    public LeafDropUtil.TreeFellerResult startTreeFeller(Player p, Material logType, Location stumpLocation) {
-        LeafDropUtil.TreeFellerResult result = new LeafDropUtil.TreeFellerResult();
-        treeFellerResults.put(p.getUniqueId(), result);
-        treeFellerLogTypes.put(p.getUniqueId(), logType);
-        treeFellerStumpLocations.put(p.getUniqueId(), stumpLocation);
-        return result;
+    public Set<Job> jobs(Player p) {
+        Set<Job> set = jobs.get(p.getUniqueId());
+        return set != null ? set : Set.of();
     }
 
-    /**
-     * Get current TreeFeller result (or null if none).
-     */
-    public LeafDropUtil.TreeFellerResult getTreeFellerResult(Player p) {
-        return treeFellerResults.get(p.getUniqueId());
-    }
-
-    /**
-     * Get the log type for current TreeFeller session.
-     */
-    public Material getTreeFellerLogType(Player p) {
-        return treeFellerLogTypes.get(p.getUniqueId());
-    }
-
-    /**
-     * Get the stump location for current TreeFeller session.
-     */
-    public Location getTreeFellerStumpLocation(Player p) {
-        return treeFellerStumpLocations.get(p.getUniqueId());
-    }
-
-    /**
-     * End TreeFeller session and return results.
-     */
-    public LeafDropUtil.TreeFellerResult endTreeFeller(Player p) {
-        treeFellerLogTypes.remove(p.getUniqueId());
-        treeFellerStumpLocations.remove(p.getUniqueId());
-        return treeFellerResults.remove(p.getUniqueId());
+    public int jobCount(Player p) {
+        Set<Job> set = jobs.get(p.getUniqueId());
+        return set != null ? set.size() : 0;
     }
 
     // ==================== CLEANUP ====================
 
     /**
      * Fully clear a player's state and all tracking data.
+     * Returns the jobs that were still running.
      */
-    public void reset(Player p) {
-        UUID id = p.getUniqueId();
-        states.remove(id);
-        veinMineResults.remove(id);
-        treeFellerResults.remove(id);
-        treeFellerLogTypes.remove(id);
-        treeFellerStumpLocations.remove(id);
+    public Set<Job> reset(Player p) {
+        Set<Job> set = jobs.remove(p.getUniqueId());
+        return set != null ? set : Set.of();
     }
 
     /**
      * Clear all data (used on plugin shutdown).
      */
     public void clear() {
-        states.clear();
-        veinMineResults.clear();
-        treeFellerResults.clear();
-        treeFellerLogTypes.clear();
-        treeFellerStumpLocations.clear();
+        jobs.clear();
     }
 }
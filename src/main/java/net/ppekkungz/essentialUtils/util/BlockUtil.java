@@ -30,4 +30,20 @@ public final class BlockUtil {
                 }
         return res;
     }
+
+    /** Block key of the block at an offset from another. */
+    public static long relative(long key, int dx, int dy, int dz) {
+        return Block.getBlockKey(Block.getBlockKeyX(key) + dx, Block.getBlockKeyY(key) + dy, Block.getBlockKeyZ(key) + dz);
+    }
+
+    /**
+     * Pack the 16x16x16 chunk section containing a block into one long
+     * (22 bits chunk X, 22 bits chunk Z, 20 bits section Y).
+     */
+    public static long sectionKey(int x, int y, int z) {
+        long cx = (x >> 4) & 0x3FFFFFL;
+        long cz = (z >> 4) & 0x3FFFFFL;
+        long sy = (y >> 4) & 0xFFFFFL;
+        return (cx << 42) | (cz << 20) | sy;
+    }
 }
@@ -36,39 +36,14 @@ public final class FortuneUtil {
      * Returns the multiplier/count based on vanilla mechanics.
      */
     public static int calculateDropCount(Material ore, int fortuneLevel) {
-        // Coal, Diamond, Emerald, Lapis, Nether Quartz, Nether Gold use "uniform bonus" formula
-        // Redstone and Copper use different mechanics
-        
-        String name = ore.name();
-        
-        // Ores that drop multiple items (like Lapis, Redstone)
-        if (name.contains("LAPIS")) {
-            // Base 4-9, fortune adds more
-            int base = 4 + random.nextInt(6); // 4-9
-            return applyUniformBonus(base, fortuneLevel);
-        }
-        
-        if (name.contains("REDSTONE")) {
-            // Base 4-5, fortune adds more
-            int base = 4 + random.nextInt(2); // 4-5
-            return applyUniformBonus(base, fortuneLevel);
-        }
-        
-        if (name.contains("COPPER")) {
-            // Raw copper drops 2-5
-            int base = 2 + random.nextInt(4); // 2-5
-            return applyUniformBonus(base, fortuneLevel);
-        }
-        
-        if (name.equals("NETHER_GOLD_ORE")) {
-            // 2-6 gold nuggets
-            int base = 2 + random.nextInt(5); // 2-6
-            return applyUniformBonus(base, fortuneLevel);
-        }
-        
-        // Standard ores (Coal, Diamond, Emerald, Quartz, Iron, Gold) - 1 base drop
-        // Fortune: 33% chance per level to multiply (1 to fortune+1)
-        return applyStandardFortuneBonus(1, fortuneLevel);
+        // Ores that drop several items (Lapis 4-9, Redstone 4-5, Copper 2-5,
+        // Nether Gold 2-6) get a uniform bonus; standard ores drop 1 and
+        // Fortune multiplies it (1 to fortune+1)
+        int min = MaterialIndex.dropMin(ore), max = MaterialIndex.dropMax(ore);
+        int base = min == max ? min : min + random.nextInt(max - min + 1);
+        return MaterialIndex.uniformBonus(ore)
+            ? applyUniformBonus(base, fortuneLevel)
+            : applyStandardFortuneBonus(base, fortuneLevel);
     }
     
     /**
@@ -97,57 +72,24 @@ public final class FortuneUtil {
      * Get the XP amount dropped by an ore.
      */
     public static int getOreXP(Material ore) {
-        String name = ore.name();
-        
-        if (name.contains("COAL")) return random.nextInt(3); // 0-2
-        if (name.contains("DIAMOND")) return random.nextInt(5) + 3; // 3-7
-        if (name.contains("EMERALD")) return random.nextInt(5) + 3; // 3-7
-        if (name.contains("LAPIS")) return random.nextInt(4) + 2; // 2-5
-        if (name.contains("REDSTONE")) return random.nextInt(4) + 1; // 1-4 (when broken without silk)
-        if (name.contains("NETHER_QUARTZ")) return random.nextInt(4) + 2; // 2-5
-        if (name.equals("NETHER_GOLD_ORE")) return random.nextInt(2); // 0-1
-        if (name.equals("ANCIENT_DEBRIS")) return 0; // No XP
-        
-        // Iron, Gold, Copper ores don't drop XP when mined (only when smelted)
-        if (name.contains("IRON") || name.contains("GOLD") || name.contains("COPPER")) {
-            return 0;
-        }
-        
-        return 0;
+        // Iron, Gold, Copper ores and ancient debris drop none (only when smelted)
+        int min = MaterialIndex.xpMin(ore), max = MaterialIndex.xpMax(ore);
+        return min == max ? min : min + random.nextInt(max - min + 1);
     }
     
     /**
      * Get the drop material for an ore.
      */
     public static Material getOreDrop(Material ore) {
-        String name = ore.name();
-        
-        if (name.contains("COAL")) return Material.COAL;
-        if (name.contains("DIAMOND")) return Material.DIAMOND;
-        if (name.contains("EMERALD")) return Material.EMERALD;
-        if (name.contains("LAPIS")) return Material.LAPIS_LAZULI;
-        if (name.contains("REDSTONE")) return Material.REDSTONE;
-        if (name.contains("NETHER_QUARTZ") || name.equals("NETHER_QUARTZ_ORE")) return Material.QUARTZ;
-        if (name.equals("NETHER_GOLD_ORE")) return Material.GOLD_NUGGET;
-        if (name.contains("COPPER")) return Material.RAW_COPPER;
-        if (name.contains("IRON")) return Material.RAW_IRON;
-        if (name.contains("GOLD") && !name.equals("NETHER_GOLD_ORE")) return Material.RAW_GOLD;
-        if (name.equals("ANCIENT_DEBRIS")) return Material.ANCIENT_DEBRIS;
-        
-        // Default: return the ore itself (for unknown ores)
-        return ore;
+        // The ore itself for unknown ores
+        return MaterialIndex.drop(ore);
     }
     
     /**
      * Check if an ore drops itself (needs smelting) or drops resources directly.
      */
     public static boolean dropsRawMaterial(Material ore) {
-        String name = ore.name();
-        // These ores drop raw materials that need smelting
-        return name.contains("IRON") || 
-               (name.contains("GOLD") && !name.equals("NETHER_GOLD_ORE")) || 
-               name.contains("COPPER") ||
-               name.equals("ANCIENT_DEBRIS");
+        return MaterialIndex.dropsRaw(ore);
     }
     
     /**
@@ -8,30 +8,22 @@ public final class HarvestUtil {
 
     public static int pickaxeTier(ItemStack tool) {
         if (tool == null) return -1;
-        String n = tool.getType().name();
-        if (!n.endsWith("_PICKAXE")) return -1;
-        if (n.startsWith("WOODEN_") || n.startsWith("GOLDEN_")) return 0;
-        if (n.startsWith("STONE_")) return 1;
-        if (n.startsWith("IRON_")) return 2;
-        if (n.startsWith("DIAMOND_")) return 3;
-        if (n.startsWith("NETHERITE_")) return 4;
-        return -1;
+        if (!MaterialIndex.isPickaxe(tool.getType())) return -1;
+        return toolTier(tool.getType());
     }
 
+    /**
+     * Tier of any tiered tool (axe, pickaxe, hoe...), -1 if not tiered.
+     */
+    public static int toolTier(Material m) {
+        return MaterialIndex.toolTier(m);
+    }
+
+    /**
+     * Lowest pickaxe tier that mines an ore (iron for unknown ones).
+     */
     public static int requiredTierForOre(Material ore) {
-        String n = ore.name();
-        if (n.equals("ANCIENT_DEBRIS")) return 3;           // diamond+
-        if (n.endsWith("REDSTONE_ORE")) return 2;           // iron+
-        if (n.endsWith("GOLD_ORE")) return 2;               // iron+
-        if (n.endsWith("DIAMOND_ORE")) return 2;            // iron+
-        if (n.endsWith("EMERALD_ORE")) return 2;            // iron+
-        if (n.endsWith("COPPER_ORE")) return 1;             // stone+
-        if (n.endsWith("LAPIS_ORE")) return 1;              // stone+
-        if (n.endsWith("IRON_ORE")) return 1;               // stone+
-        if (n.endsWith("COAL_ORE")) return 0;               // any
-        if (n.endsWith("NETHER_QUARTZ_ORE")) return 0;      // any
-        if (n.endsWith("NETHER_GOLD_ORE")) return 0;        // any
-        return 2; // safe default
+        return MaterialIndex.requiredTier(ore);
     }
 
     public static String tierName(int tier) {
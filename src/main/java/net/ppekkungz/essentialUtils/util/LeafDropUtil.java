@@ -44,39 +44,14 @@ public final class LeafDropUtil {
      * Determine tree type from a leaf block material.
      */
     public static TreeType getTreeType(Material leaf) {
-        String name = leaf.name();
-        
-        if (name.contains("DARK_OAK")) return TreeType.DARK_OAK;
-        if (name.contains("OAK") && !name.contains("PALE")) return TreeType.OAK;
-        if (name.contains("BIRCH")) return TreeType.BIRCH;
-        if (name.contains("SPRUCE")) return TreeType.SPRUCE;
-        if (name.contains("JUNGLE")) return TreeType.JUNGLE;
-        if (name.contains("ACACIA")) return TreeType.ACACIA;
-        if (name.contains("MANGROVE")) return TreeType.MANGROVE;
-        if (name.contains("CHERRY")) return TreeType.CHERRY;
-        if (name.contains("PALE_OAK")) return TreeType.PALE_OAK;
-        if (name.contains("AZALEA")) return TreeType.AZALEA;
-        
-        return TreeType.UNKNOWN;
+        return MaterialIndex.leafTree(leaf);
     }
     
     /**
      * Determine tree type from a log block material.
      */
     public static TreeType getTreeTypeFromLog(Material log) {
-        String name = log.name().replace("STRIPPED_", "");
-        
-        if (name.contains("DARK_OAK")) return TreeType.DARK_OAK;
-        if (name.contains("OAK") && !name.contains("PALE")) return TreeType.OAK;
-        if (name.contains("BIRCH")) return TreeType.BIRCH;
-        if (name.contains("SPRUCE")) return TreeType.SPRUCE;
-        if (name.contains("JUNGLE")) return TreeType.JUNGLE;
-        if (name.contains("ACACIA")) return TreeType.ACACIA;
-        if (name.contains("MANGROVE")) return TreeType.MANGROVE;
-        if (name.contains("CHERRY")) return TreeType.CHERRY;
-        if (name.contains("PALE_OAK")) return TreeType.PALE_OAK;
-        
-        return TreeType.UNKNOWN;
+        return MaterialIndex.logTree(log);
     }
     
     /**
@@ -102,7 +77,7 @@ public final class LeafDropUtil {
      * Get the sapling material for a log type.
      */
     public static Material getSaplingForLog(Material log) {
-        return getSapling(getTreeTypeFromLog(log));
+        return MaterialIndex.sapling(log);
     }
     
     /**
@@ -149,6 +124,7 @@ public final class LeafDropUtil {
     
     /**
      * Result class for tracking tree feller drops.
+     * Mutators are synchronized since a tree may span several region threads.
      */
     public static class TreeFellerResult {
         public int logs = 0;
@@ -157,7 +133,7 @@ public final class LeafDropUtil {
         public int apples = 0;
         public int sticks = 0;
         
-        public void addLeafDrops(TreeType type) {
+        public synchronized void addLeafDrops(TreeType type) {
             leaves++;
             
             if (random.nextDouble() < type.saplingChance) {
@@ -171,11 +147,11 @@ public final class LeafDropUtil {
             }
         }
         
-        public void addLog() {
+        public synchronized void addLog() {
             logs++;
         }
         
-        public List<ItemStack> toItemStacks(TreeType type) {
+        public synchronized List<ItemStack> toItemStacks(TreeType type) {
             List<ItemStack> drops = new ArrayList<>();
             if (saplings > 0) {
                 drops.add(new ItemStack(getSapling(type), saplings));
@@ -194,7 +170,7 @@ public final class LeafDropUtil {
      * Check if a material is a leaf block.
      */
     public static boolean isLeaf(Material m) {
-        return m.name().endsWith("_LEAVES");
+        return MaterialIndex.isLeaf(m);
     }
 }
 
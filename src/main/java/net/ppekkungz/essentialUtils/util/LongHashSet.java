@@ -0,0 +1,83 @@
+package net.ppekkungz.essentialUtils.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing set of primitive longs (linear probing, power-of-two
+ * table). Meant to be cleared and reused, e.g. as the visited set of a
+ * flood fill, so it never shrinks. Not thread-safe.
+ */
+public final class LongHashSet {
+    // 0 marks an empty slot; the key 0 itself is tracked separately
+    private long[] table;
+    private int mask;
+    private int size;
+    private boolean hasZero;
+
+    public LongHashSet(int expected) {
+        int cap = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+        table = new long[cap];
+        mask = cap - 1;
+    }
+
+    /**
+     * Add a key. Returns false if it was already present.
+     */
+    public boolean add(long key) {
+        if (key == 0) {
+            if (hasZero) return false;
+            hasZero = true;
+            size++;
+            return true;
+        }
+
+        int i = slot(key);
+        while (table[i] != 0) {
+            if (table[i] == key) return false;
+            i = (i + 1) & mask;
+        }
+        table[i] = key;
+        // Keep the load factor at or below 1/2
+        if (++size * 2 > table.length) grow();
+        return true;
+    }
+
+    public boolean contains(long key) {
+        if (key == 0) return hasZero;
+
+        int i = slot(key);
+        while (table[i] != 0) {
+            if (table[i] == key) return true;
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    public void clear() {
+        if (size == 0) return;
+        Arrays.fill(table, 0);
+        size = 0;
+        hasZero = false;
+    }
+
+    private int slot(long key) {
+        // Spread the packed coordinate bits over the low bits
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void grow() {
+        long[] old = table;
+        table = new long[old.length * 2];
+        mask = table.length - 1;
+        for (long key : old) {
+            if (key == 0) continue;
+            int i = slot(key);
+            while (table[i] != 0) i = (i + 1) & mask;
+            table[i] = key;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package net.ppekkungz.essentialUtils.util;
+
+/**
+ * Open-addressing map from primitive longs to ints (linear probing,
+ * power-of-two table, backward-shift removal). Lookups and updates don't
+ * box or allocate; the table only grows. Not thread-safe.
+ */
+public final class LongIntHashMap {
+    /** Returned by {@link #get} for a missing key. */
+    public static final int MISSING = -1;
+
+    // 0 marks an empty slot; the key 0 itself is tracked separately
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private boolean hasZero;
+    private int zeroValue;
+
+    public LongIntHashMap(int expected) {
+        int cap = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+        keys = new long[cap];
+        values = new int[cap];
+        mask = cap - 1;
+    }
+
+    /**
+     * Value for a key, or {@link #MISSING}.
+     */
+    public int get(long key) {
+        if (key == 0) return hasZero ? zeroValue : MISSING;
+
+        int i = slot(key);
+        while (keys[i] != 0) {
+            if (keys[i] == key) return values[i];
+            i = (i + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    public void put(long key, int value) {
+        if (key == 0) {
+            if (!hasZero) size++;
+            hasZero = true;
+            zeroValue = value;
+            return;
+        }
+
+        int i = slot(key);
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        // Keep the load factor at or below 1/2
+        if (++size * 2 > keys.length) grow();
+    }
+
+    /**
+     * Remove a key. Returns false if it wasn't present.
+     */
+    public boolean remove(long key) {
+        if (key == 0) {
+            if (!hasZero) return false;
+            hasZero = false;
+            size--;
+            return true;
+        }
+
+        int i = slot(key);
+        while (keys[i] != key) {
+            if (keys[i] == 0) return false;
+            i = (i + 1) & mask;
+        }
+
+        // Shift later entries of the probe run back into the gap
+        int gap = i;
+        int j = (i + 1) & mask;
+        while (keys[j] != 0) {
+            int home = slot(keys[j]);
+            // Move unless the entry's home lies cyclically in (gap, j]
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+            j = (j + 1) & mask;
+        }
+        keys[gap] = 0;
+        size--;
+        return true;
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    private int slot(long key) {
+        // Spread the packed coordinate bits over the low bits
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[keys.length];
+        mask = keys.length - 1;
+        for (int k = 0; k < oldKeys.length; k++) {
+            if (oldKeys[k] == 0) continue;
+            int i = slot(oldKeys[k]);
+            while (keys[i] != 0) i = (i + 1) & mask;
+            keys[i] = oldKeys[k];
+            values[i] = oldValues[k];
+        }
+    }
+}
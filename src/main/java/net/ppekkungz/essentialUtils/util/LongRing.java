@@ -0,0 +1,50 @@
+package net.ppekkungz.essentialUtils.util;
+
+/**
+ * Growable FIFO ring buffer of primitive longs, e.g. the block keys on the
+ * frontier of a flood fill. Not thread-safe.
+ */
+public final class LongRing {
+    private long[] buf;
+    private int head, size;
+
+    public LongRing(int capacity) {
+        buf = new long[Integer.highestOneBit(Math.max(2, capacity - 1)) << 1];
+    }
+
+    public void add(long v) {
+        if (size == buf.length) grow();
+        buf[(head + size) & (buf.length - 1)] = v;
+        size++;
+    }
+
+    /**
+     * Remove and return the oldest value. The ring must not be empty.
+     */
+    public long poll() {
+        long v = buf[head];
+        head = (head + 1) & (buf.length - 1);
+        size--;
+        return v;
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    public void clear() {
+        head = size = 0;
+    }
+
+    private void grow() {
+        long[] next = new long[buf.length * 2];
+        int first = buf.length - head;
+        if (size <= first) {
+            System.arraycopy(buf, head, next, 0, size);
+        } else {
+            System.arraycopy(buf, head, next, 0, first);
+            System.arraycopy(buf, 0, next, first, size - first);
+        }
+        buf = next;
+        head = 0;
+    }
+}
@@ -0,0 +1,205 @@
+package net.ppekkungz.essentialUtils.util;
+
+import org.bukkit.Material;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Material classification tables, indexed by ordinal and built once from
+ * the material names. The hot checks (is it a log, which ore family, what
+ * does it drop, which sapling) are single array loads instead of string operations.
+ *
+ * The name rules live here; {@link Materials}, {@link HarvestUtil},
+ * {@link FortuneUtil}, {@link LeafDropUtil} and the features read the
+ * tables through their usual helpers.
+ */
+public final class MaterialIndex {
+    private MaterialIndex(){}
+
+    // Flag bits
+    private static final int LOG = 1;
+    private static final int LEAF = 1 << 1;
+    private static final int ORE = 1 << 2;
+    private static final int CROP = 1 << 3;
+    private static final int REPLANTABLE = 1 << 4;
+    private static final int AXE = 1 << 5;
+    private static final int PICKAXE = 1 << 6;
+    private static final int HOE = 1 << 7;
+    private static final int RAW_DROP = 1 << 8;
+    private static final int UNIFORM_BONUS = 1 << 9;
+
+    private static final Material[] MATERIALS = Material.values();
+    private static final int N = MATERIALS.length;
+
+    private static final short[] FLAGS = new short[N];
+    // Same id for a material and its deepslate variant
+    private static final short[] FAMILY = new short[N];
+    private static final byte[] TOOL_TIER = new byte[N];
+    private static final byte[] REQUIRED_TIER = new byte[N];
+    private static final Material[] DROP = new Material[N];
+    private static final byte[] DROP_MIN = new byte[N], DROP_MAX = new byte[N];
+    private static final byte[] XP_MIN = new byte[N], XP_MAX = new byte[N];
+    private static final LeafDropUtil.TreeType[] LOG_TREE = new LeafDropUtil.TreeType[N];
+    private static final LeafDropUtil.TreeType[] LEAF_TREE = new LeafDropUtil.TreeType[N];
+    private static final Material[] SAPLING = new Material[N];
+
+    static {
+        Map<String, Short> families = new HashMap<>();
+        for (Material m : MATERIALS) {
+            int i = m.ordinal();
+            String n = m.name();
+
+            int flags = 0;
+            if (n.endsWith("_LOG")) flags |= LOG;
+            if (n.endsWith("_LEAVES")) flags |= LEAF;
+            if ((n.endsWith("_ORE") && m.isBlock()) || m == Material.ANCIENT_DEBRIS) flags |= ORE;
+            if (n.endsWith("_AXE")) flags |= AXE;
+            if (n.endsWith("_PICKAXE")) flags |= PICKAXE;
+            if (n.endsWith("_HOE")) flags |= HOE;
+            switch (m) {
+                case WHEAT, CARROTS, POTATOES, BEETROOTS, NETHER_WART -> flags |= CROP | REPLANTABLE;
+                case SWEET_BERRY_BUSH, COCOA, MELON, PUMPKIN -> flags |= CROP;
+                default -> {}
+            }
+            if (n.contains("IRON") || (n.contains("GOLD") && !n.equals("NETHER_GOLD_ORE"))
+                    || n.contains("COPPER") || n.equals("ANCIENT_DEBRIS")) {
+                flags |= RAW_DROP;
+            }
+
+            String family = n.startsWith("DEEPSLATE_") ? n.substring("DEEPSLATE_".length()) : n;
+            FAMILY[i] = families.computeIfAbsent(family, k -> (short) families.size());
+
+            TOOL_TIER[i] = (byte) toolTierOf(n);
+            REQUIRED_TIER[i] = (byte) requiredTierOf(n);
+            DROP[i] = dropOf(m, n);
+            int[] count = dropCountOf(n);
+            DROP_MIN[i] = (byte) count[0];
+            DROP_MAX[i] = (byte) count[1];
+            if (count[2] != 0) flags |= UNIFORM_BONUS;
+            int[] xp = xpOf(n);
+            XP_MIN[i] = (byte) xp[0];
+            XP_MAX[i] = (byte) xp[1];
+            LOG_TREE[i] = treeTypeOf(n.replace("STRIPPED_", ""), false);
+            LEAF_TREE[i] = treeTypeOf(n, true);
+            SAPLING[i] = LeafDropUtil.getSapling(LOG_TREE[i]);
+
+            FLAGS[i] = (short) flags;
+        }
+    }
+
+    /**
+     * Load the tables now (at startup) rather than on the first break.
+     */
+    public static void init() {}
+
+    // ==================== LOOKUPS ====================
+
+    public static boolean isLog(Material m) { return (FLAGS[m.ordinal()] & LOG) != 0; }
+    public static boolean isLeaf(Material m) { return (FLAGS[m.ordinal()] & LEAF) != 0; }
+    public static boolean isOre(Material m) { return (FLAGS[m.ordinal()] & ORE) != 0; }
+    public static boolean isCrop(Material m) { return (FLAGS[m.ordinal()] & CROP) != 0; }
+    public static boolean isReplantable(Material m) { return (FLAGS[m.ordinal()] & REPLANTABLE) != 0; }
+    public static boolean isAxe(Material m) { return (FLAGS[m.ordinal()] & AXE) != 0; }
+    public static boolean isPickaxe(Material m) { return (FLAGS[m.ordinal()] & PICKAXE) != 0; }
+    public static boolean isHoe(Material m) { return (FLAGS[m.ordinal()] & HOE) != 0; }
+    public static boolean dropsRaw(Material m) { return (FLAGS[m.ordinal()] & RAW_DROP) != 0; }
+    public static boolean uniformBonus(Material m) { return (FLAGS[m.ordinal()] & UNIFORM_BONUS) != 0; }
+
+    /** Materials that are the same but for a deepslate variant share a family. */
+    public static int family(Material m) { return FAMILY[m.ordinal()]; }
+    public static int toolTier(Material m) { return TOOL_TIER[m.ordinal()]; }
+    public static int requiredTier(Material m) { return REQUIRED_TIER[m.ordinal()]; }
+    public static Material drop(Material m) { return DROP[m.ordinal()]; }
+    public static int dropMin(Material m) { return DROP_MIN[m.ordinal()]; }
+    public static int dropMax(Material m) { return DROP_MAX[m.ordinal()]; }
+    public static int xpMin(Material m) { return XP_MIN[m.ordinal()]; }
+    public static int xpMax(Material m) { return XP_MAX[m.ordinal()]; }
+    public static LeafDropUtil.TreeType logTree(Material m) { return LOG_TREE[m.ordinal()]; }
+    public static LeafDropUtil.TreeType leafTree(Material m) { return LEAF_TREE[m.ordinal()]; }
+    /** Sapling for a log (oak if unknown). */
+    public static Material sapling(Material m) { return SAPLING[m.ordinal()]; }
+
+    // ==================== NAME RULES ====================
+
+    private static int toolTierOf(String n) {
+        if (n.startsWith("WOODEN_") || n.startsWith("GOLDEN_")) return 0;
+        if (n.startsWith("STONE_")) return 1;
+        if (n.startsWith("IRON_")) return 2;
+        if (n.startsWith("DIAMOND_")) return 3;
+        if (n.startsWith("NETHERITE_")) return 4;
+        return -1;
+    }
+
+    private static int requiredTierOf(String n) {
+        if (n.equals("ANCIENT_DEBRIS")) return 3;           // diamond+
+        if (n.endsWith("REDSTONE_ORE")) return 2;           // iron+
+        if (n.endsWith("GOLD_ORE")) return 2;               // iron+
+        if (n.endsWith("DIAMOND_ORE")) return 2;            // iron+
+        if (n.endsWith("EMERALD_ORE")) return 2;            // iron+
+        if (n.endsWith("COPPER_ORE")) return 1;             // stone+
+        if (n.endsWith("LAPIS_ORE")) return 1;              // stone+
+        if (n.endsWith("IRON_ORE")) return 1;               // stone+
+        if (n.endsWith("COAL_ORE")) return 0;               // any
+        if (n.endsWith("NETHER_QUARTZ_ORE")) return 0;      // any
+        if (n.endsWith("NETHER_GOLD_ORE")) return 0;        // any
+        return 2; // safe default
+    }
+
+    private static Material dropOf(Material ore, String name) {
+        if (name.contains("COAL")) return Material.COAL;
+        if (name.contains("DIAMOND")) return Material.DIAMOND;
+        if (name.contains("EMERALD")) return Material.EMERALD;
+        if (name.contains("LAPIS")) return Material.LAPIS_LAZULI;
+        if (name.contains("REDSTONE")) return Material.REDSTONE;
+        if (name.contains("NETHER_QUARTZ")) return Material.QUARTZ;
+        if (name.equals("NETHER_GOLD_ORE")) return Material.GOLD_NUGGET;
+        if (name.contains("COPPER")) return Material.RAW_COPPER;
+        if (name.contains("IRON")) return Material.RAW_IRON;
+        if (name.contains("GOLD")) return Material.RAW_GOLD;
+        if (name.equals("ANCIENT_DEBRIS")) return Material.ANCIENT_DEBRIS;
+
+        // Default: the ore itself (for unknown ores)
+        return ore;
+    }
+
+    /**
+     * Base drop count range, and 1 if Fortune adds a uniform bonus rather
+     * than multiplying.
+     */
+    private static int[] dropCountOf(String name) {
+        if (name.contains("LAPIS")) return new int[] {4, 9, 1};
+        if (name.contains("REDSTONE")) return new int[] {4, 5, 1};
+        if (name.contains("COPPER")) return new int[] {2, 5, 1};
+        if (name.equals("NETHER_GOLD_ORE")) return new int[] {2, 6, 1};
+        // Standard ores (Coal, Diamond, Emerald, Quartz, Iron, Gold) - 1 base drop
+        return new int[] {1, 1, 0};
+    }
+
+    private static int[] xpOf(String name) {
+        if (name.contains("COAL")) return new int[] {0, 2};
+        if (name.contains("DIAMOND")) return new int[] {3, 7};
+        if (name.contains("EMERALD")) return new int[] {3, 7};
+        if (name.contains("LAPIS")) return new int[] {2, 5};
+        if (name.contains("REDSTONE")) return new int[] {1, 4};  // when broken without silk
+        if (name.contains("NETHER_QUARTZ")) return new int[] {2, 5};
+        if (name.equals("NETHER_GOLD_ORE")) return new int[] {0, 1};
+        // Iron, Gold, Copper ores and ancient debris drop no XP when mined
+        return new int[] {0, 0};
+    }
+
+    private static LeafDropUtil.TreeType treeTypeOf(String name, boolean leaf) {
+        if (name.contains("DARK_OAK")) return LeafDropUtil.TreeType.DARK_OAK;
+        if (name.contains("OAK") && !name.contains("PALE")) return LeafDropUtil.TreeType.OAK;
+        if (name.contains("BIRCH")) return LeafDropUtil.TreeType.BIRCH;
+        if (name.contains("SPRUCE")) return LeafDropUtil.TreeType.SPRUCE;
+        if (name.contains("JUNGLE")) return LeafDropUtil.TreeType.JUNGLE;
+        if (name.contains("ACACIA")) return LeafDropUtil.TreeType.ACACIA;
+        if (name.contains("MANGROVE")) return LeafDropUtil.TreeType.MANGROVE;
+        if (name.contains("CHERRY")) return LeafDropUtil.TreeType.CHERRY;
+        if (name.contains("PALE_OAK")) return LeafDropUtil.TreeType.PALE_OAK;
+        // Azalea leaves, but there are no azalea logs
+        if (leaf && name.contains("AZALEA")) return LeafDropUtil.TreeType.AZALEA;
+        return LeafDropUtil.TreeType.UNKNOWN;
+    }
+}
@@ -10,10 +10,8 @@ public final class Materials {
     private Materials(){}
 
     public static boolean isLog(Material m, boolean includeStripped) {
-        String n = m.name();
-        if (n.endsWith("_LOG")) return true;
-        if (includeStripped && n.startsWith("STRIPPED_") && n.endsWith("_LOG")) return true;
-        return false;
+        // Stripped logs end in _LOG too, so they always count
+        return MaterialIndex.isLog(m);
     }
 
     public static Set<Material> fromListPatterns(List<String> patterns) {
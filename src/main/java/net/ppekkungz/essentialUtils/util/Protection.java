@@ -1,14 +1,202 @@
 package net.ppekkungz.essentialUtils.util;
 
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Build permission checks against the registered {@link ProtectionProvider}s.
+ * With none registered everything is allowed.
+ *
+ * Chunk-level decisions are cached per (player, chunk) for a configurable
+ * time, for at most {@value #MAX_CHUNKS} chunks per player (least recently
+ * used go first). The cache is dropped when a provider's
+ * {@link ProtectionProvider#version()} changes. Providers only get asked
+ * per block in chunks they call MIXED. Jobs check their items once, in
+ * bulk, when they are submitted.
+ */
 public final class Protection {
     private Protection(){}
 
-    // TODO: Wire real checks (WorldGuard/GriefDefender/Region permission, etc.)
+    private record ChunkKey(UUID world, int x, int z) {}
+
+    private record Cached(ProtectionProvider.Decision decision, long expires) {}
+
+    private static final int MAX_CHUNKS = 256;
+
+    /**
+     * One player's decisions in access order; the least recently used, or
+     * an expired eldest entry, is evicted as new ones come in. Guarded by
+     * its own monitor.
+     */
+    private static final class ChunkCache extends LinkedHashMap<ChunkKey, Cached> {
+        ChunkCache() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ChunkKey, Cached> eldest) {
+            return size() > MAX_CHUNKS || System.nanoTime() - eldest.getValue().expires >= 0;
+        }
+    }
+
+    private static final List<ProtectionProvider> providers = new CopyOnWriteArrayList<>();
+    private static final Map<UUID, ChunkCache> cache = new ConcurrentHashMap<>();
+    private static volatile long ttlNanos = TimeUnit.SECONDS.toNanos(30);
+
+    // Sum of the providers' versions the cache was filled under
+    private static volatile long cachedVersion;
+
+    // ==================== PROVIDERS ====================
+
+    public static void register(ProtectionProvider provider) {
+        providers.add(provider);
+        invalidateAll();
+    }
+
+    public static void unregister(ProtectionProvider provider) {
+        if (providers.remove(provider)) invalidateAll();
+    }
+
+    /**
+     * How long chunk decisions are cached (0 to not cache).
+     */
+    public static void setCacheSeconds(int seconds) {
+        ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(0, seconds));
+        invalidateAll();
+    }
+
+    // ==================== CHECKS ====================
+
     public static boolean canModify(Player p, Block b) {
-        // Always true for now; replace with plugin hooks if safety.respectProtections=true
+        if (providers.isEmpty()) return true;
+        return switch (decide(p, b.getWorld(), b.getX() >> 4, b.getZ() >> 4)) {
+            case ALLOW -> true;
+            case DENY -> false;
+            case MIXED -> askBlock(p, b);
+        };
+    }
+
+    /**
+     * Which of {@code count} packed block positions ({@link Block#getBlockKey})
+     * in a world the player may modify, as a set of their indices.
+     * Positions are usually clustered, so consecutive ones in the same
+     * chunk share one decision.
+     */
+    public static BitSet allowed(Player p, World w, long[] blockKeys, int count) {
+        BitSet ok = new BitSet(count);
+        if (providers.isEmpty()) {
+            ok.set(0, count);
+            return ok;
+        }
+
+        int lastX = 0, lastZ = 0;
+        ProtectionProvider.Decision d = null;
+        for (int i = 0; i < count; i++) {
+            long k = blockKeys[i];
+            int x = Block.getBlockKeyX(k);
+            int z = Block.getBlockKeyZ(k);
+            if (d == null || x >> 4 != lastX || z >> 4 != lastZ) {
+                lastX = x >> 4;
+                lastZ = z >> 4;
+                d = decide(p, w, lastX, lastZ);
+            }
+            boolean allow = switch (d) {
+                case ALLOW -> true;
+                case DENY -> false;
+                case MIXED -> askBlock(p, w.getBlockAt(x, Block.getBlockKeyY(k), z));
+            };
+            if (allow) ok.set(i);
+        }
+        return ok;
+    }
+
+    /**
+     * Combined decision of all providers for a chunk, from the cache if fresh.
+     */
+    private static ProtectionProvider.Decision decide(Player p, World w, int cx, int cz) {
+        // A provider's rules changed - nothing cached can be trusted
+        long version = 0;
+        for (ProtectionProvider provider : providers) {
+            version += provider.version();
+        }
+        if (version != cachedVersion) {
+            cachedVersion = version;
+            cache.clear();
+        }
+
+        ChunkKey key = new ChunkKey(w.getUID(), cx, cz);
+        ChunkCache chunks = cache.computeIfAbsent(p.getUniqueId(), k -> new ChunkCache());
+        long now = System.nanoTime();
+        Cached c;
+        synchronized (chunks) {
+            c = chunks.get(key);
+        }
+        if (c != null && now - c.expires < 0) return c.decision;
+
+        ProtectionProvider.Decision d = ProtectionProvider.Decision.ALLOW;
+        for (ProtectionProvider provider : providers) {
+            ProtectionProvider.Decision pd = provider.chunk(p, w, cx, cz);
+            if (pd == ProtectionProvider.Decision.DENY) {
+                d = pd;
+                break;
+            }
+            if (pd == ProtectionProvider.Decision.MIXED) d = pd;
+        }
+        if (ttlNanos > 0) {
+            synchronized (chunks) {
+                chunks.put(key, new Cached(d, now + ttlNanos));
+            }
+        }
+        return d;
+    }
+
+    private static boolean askBlock(Player p, Block b) {
+        for (ProtectionProvider provider : providers) {
+            if (!provider.canModify(p, b)) return false;
+        }
         return true;
     }
+
+    // ==================== INVALIDATION ====================
+
+    /**
+     * Forget a player's cached decisions (e.g. on logout or permission change).
+     */
+    public static void invalidate(Player p) {
+        cache.remove(p.getUniqueId());
+    }
+
+    /**
+     * Forget every player's cached decision for one chunk (e.g. a claim changed).
+     */
+    public static void invalidateChunk(World w, int chunkX, int chunkZ) {
+        ChunkKey key = new ChunkKey(w.getUID(), chunkX, chunkZ);
+        for (ChunkCache chunks : cache.values()) {
+            synchronized (chunks) {
+                chunks.remove(key);
+            }
+        }
+    }
+
+    public static void invalidateAll() {
+        cache.clear();
+    }
+
+    /**
+     * Drop all providers and cached decisions (plugin shutdown).
+     */
+    public static void clear() {
+        providers.clear();
+        cache.clear();
+    }
 }
@@ -0,0 +1,54 @@
+package net.ppekkungz.essentialUtils.util;
+
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+
+/**
+ * A source of build permissions (a claims or regions plugin) that
+ * {@link Protection} consults. Register implementations with
+ * {@link Protection#register(ProtectionProvider)}.
+ *
+ * Answers are cached per (player, chunk), so a provider whose rules change
+ * should call {@link Protection#invalidateChunk} or
+ * {@link Protection#invalidateAll()}, or bump its {@link #version()}.
+ * Called on region threads.
+ */
+public interface ProtectionProvider {
+
+    /**
+     * A provider's answer for a whole chunk.
+     */
+    enum Decision {
+        /** The player may modify every block in the chunk */
+        ALLOW,
+        /** The player may modify no block in the chunk */
+        DENY,
+        /** Depends on the block; ask {@link #canModify} for each */
+        MIXED
+    }
+
+    String name();
+
+    /**
+     * A counter the provider increases whenever its rules change (a claim
+     * created, resized or removed). Cached decisions are dropped when it
+     * does. Must be cheap; it is read on every chunk decision.
+     */
+    default long version() {
+        return 0;
+    }
+
+    /**
+     * Decide for a whole chunk if possible. Cheap providers can leave this
+     * as {@link Decision#MIXED} and only answer per block.
+     */
+    default Decision chunk(Player p, World w, int chunkX, int chunkZ) {
+        return Decision.MIXED;
+    }
+
+    /**
+     * Decide for one block. Only asked in chunks some provider called MIXED.
+     */
+    boolean canModify(Player p, Block b);
+}
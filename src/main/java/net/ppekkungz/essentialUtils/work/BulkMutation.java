@@ -0,0 +1,114 @@
+package net.ppekkungz.essentialUtils.work;
+
+import net.ppekkungz.essentialUtils.util.BlockUtil;
+import net.ppekkungz.essentialUtils.world.BlockSink;
+import net.ppekkungz.essentialUtils.world.BlockSource;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Block removals collected during one partition tick and applied together.
+ *
+ * Removing a tree block by block with physics on makes every removal wake
+ * its neighbours (leaf decay checks, light updates, falling blocks), most
+ * of which are about to be removed too. Here, blocks whose six neighbours
+ * are all air or part of the batch are removed with physics off. The rest,
+ * the batch's outer boundary, are removed last with physics on, so each
+ * surviving neighbour gets its updates once and the end state is the same.
+ *
+ * Owned by one partition; only used from its region thread.
+ */
+final class BulkMutation {
+
+    private record Removal(long key, Collection<ItemStack> drops, Material effect) {}
+
+    private final BlockSource source;
+    private final BlockSink sink;
+
+    // Pending removals keyed by block key, so duplicates are ignored
+    private final Map<Long, Removal> removals = new LinkedHashMap<>();
+
+    // Split of a flush, reused between ticks
+    private final List<Removal> boundary = new ArrayList<>();
+    private final List<Removal> interior = new ArrayList<>();
+
+    BulkMutation(BlockSource source, BlockSink sink) {
+        this.source = source;
+        this.sink = sink;
+    }
+
+    /**
+     * Queue a block for removal, with the items to drop where it stood and
+     * the block type to show a break effect for (null for none).
+     */
+    void remove(long key, Collection<ItemStack> drops, Material effect) {
+        removals.putIfAbsent(key, new Removal(key, drops, effect));
+    }
+
+    /**
+     * True if the block is already queued for removal in this batch.
+     */
+    boolean contains(long key) {
+        return removals.containsKey(key);
+    }
+
+    /**
+     * Apply all pending removals and clear the batch.
+     */
+    void flush() {
+        if (removals.isEmpty()) return;
+
+        // Find the boundary before anything changes
+        for (Removal r : removals.values()) {
+            (touchesOutside(r.key) ? boundary : interior).add(r);
+        }
+
+        for (Removal r : interior) {
+            setAir(r.key, false);
+        }
+        for (Removal r : boundary) {
+            setAir(r.key, true);
+        }
+
+        for (Removal r : removals.values()) {
+            int x = Block.getBlockKeyX(r.key), y = Block.getBlockKeyY(r.key), z = Block.getBlockKeyZ(r.key);
+            if (r.effect != null) {
+                sink.breakEffect(x, y, z, r.effect);
+            }
+            for (ItemStack drop : r.drops) {
+                sink.drop(x, y, z, drop);
+            }
+        }
+
+        removals.clear();
+        boundary.clear();
+        interior.clear();
+    }
+
+    /**
+     * True if any face neighbour survives the batch and needs an update.
+     */
+    private boolean touchesOutside(long key) {
+        return survives(BlockUtil.relative(key, 1, 0, 0))
+            || survives(BlockUtil.relative(key, -1, 0, 0))
+            || survives(BlockUtil.relative(key, 0, 1, 0))
+            || survives(BlockUtil.relative(key, 0, -1, 0))
+            || survives(BlockUtil.relative(key, 0, 0, 1))
+            || survives(BlockUtil.relative(key, 0, 0, -1));
+    }
+
+    private boolean survives(long key) {
+        return !removals.containsKey(key) && !source.type(key).isAir();
+    }
+
+    private void setAir(long key, boolean physics) {
+        sink.setType(Block.getBlockKeyX(key), Block.getBlockKeyY(key), Block.getBlockKeyZ(key), Material.AIR, physics);
+    }
+}
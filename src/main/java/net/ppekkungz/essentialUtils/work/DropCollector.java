@@ -0,0 +1,64 @@
+package net.ppekkungz.essentialUtils.work;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Drops produced by a job, merged by item and spawned once at the end as
+ * full stacks instead of one item entity per broken block.
+ *
+ * Filled from every region thread the job's partitions run on.
+ */
+public final class DropCollector {
+
+    // Single-item prototype -> total amount
+    private final Map<ItemStack, Integer> counts = new ConcurrentHashMap<>();
+
+    public void add(ItemStack drop) {
+        if (drop == null || drop.getType().isAir() || drop.getAmount() <= 0) return;
+        counts.merge(drop.asOne(), drop.getAmount(), Integer::sum);
+    }
+
+    public void addAll(Collection<ItemStack> drops) {
+        for (ItemStack drop : drops) {
+            add(drop);
+        }
+    }
+
+    public boolean isEmpty() {
+        return counts.isEmpty();
+    }
+
+    /**
+     * Take everything collected so far as the fewest stacks possible.
+     */
+    public List<ItemStack> drain() {
+        List<ItemStack> stacks = new ArrayList<>();
+        for (ItemStack proto : counts.keySet()) {
+            Integer total = counts.remove(proto);
+            if (total == null) continue;
+
+            int max = Math.max(1, proto.getMaxStackSize());
+            for (int left = total; left > 0; left -= max) {
+                ItemStack stack = proto.clone();
+                stack.setAmount(Math.min(left, max));
+                stacks.add(stack);
+            }
+        }
+        return stacks;
+    }
+
+    /**
+     * Merge loose stacks (e.g. leaf drop totals) into the fewest valid stacks.
+     */
+    public static List<ItemStack> consolidate(Collection<ItemStack> drops) {
+        DropCollector c = new DropCollector();
+        c.addAll(drops);
+        return c.drain();
+    }
+}
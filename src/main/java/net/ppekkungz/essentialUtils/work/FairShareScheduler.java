@@ -0,0 +1,167 @@
+package net.ppekkungz.essentialUtils.work;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import net.ppekkungz.essentialUtils.EssentialUtils;
+import net.ppekkungz.essentialUtils.config.PluginConfig;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-wide work budget shared fairly between all active work queues
+ * (one per player per region partition).
+ *
+ * Uses deficit round-robin: every active queue earns an equal quantum of the
+ * global budget each tick, and unused credit carries over (up to the
+ * per-queue cap) while the queue still has work. Queues that go idle are
+ * dropped so they never hold budget.
+ *
+ * The budget unit depends on the configured mode: blocks in "blocks" mode,
+ * nanoseconds in "time" mode (sized by {@link TickBudgetController}).
+ * Overrunning a reservation puts the queue in debt for the next tick.
+ *
+ * Folia-compatible: the pool is refilled on the global region scheduler and
+ * drawn from atomically by each partition's region thread.
+ */
+public class FairShareScheduler {
+    private final EssentialUtils plugin;
+    private final PluginConfig cfg;
+    private final TickBudgetController controller;
+
+    // Budget left in the current tick across all players
+    private final AtomicLong pool = new AtomicLong();
+
+    // Active queues and their carried-over credit
+    private final Map<RegionPartition.Key, Flow> flows = new ConcurrentHashMap<>();
+
+    // Server tick counter, advanced by the refill loop
+    private volatile long tick;
+
+    private ScheduledTask refillTask;
+
+    public FairShareScheduler(EssentialUtils plugin, PluginConfig cfg, TickBudgetController controller) {
+        this.plugin = plugin;
+        this.cfg = cfg;
+        this.controller = controller;
+
+        pool.set(capacity());
+    }
+
+    /**
+     * Refill the shared pool once per tick.
+     */
+    public void start() {
+        refillTask = plugin.getServer().getGlobalRegionScheduler().runAtFixedRate(
+            plugin, task -> advanceTick(), 1L, 1L);
+    }
+
+    /**
+     * Start the next tick: advance the clock and refill the pool. Run by
+     * the refill loop, or directly by a simulated clock.
+     */
+    public void advanceTick() {
+        tick++;
+        controller.onTick();
+        pool.set(capacity());
+    }
+
+    /**
+     * Reserve budget for a queue this tick.
+     * Returns how much the queue may spend (possibly 0).
+     */
+    public long acquire(RegionPartition.Key id, long demand) {
+        if (demand <= 0) return 0;
+        Flow flow = flows.computeIfAbsent(id, k -> new Flow());
+
+        long quantum = Math.max(1, capacity() / Math.max(1, flows.size()));
+        flow.credit = Math.min(flow.deficit + quantum, flowCap());
+
+        return take(Math.min(flow.credit, demand));
+    }
+
+    /**
+     * Report how much of a reservation was actually used.
+     * Unused budget goes back to the pool and overruns are charged to it;
+     * leftover credit (or debt) is carried only while the queue has work.
+     */
+    public void complete(RegionPartition.Key id, long granted, long used, boolean drained) {
+        if (granted != used) {
+            pool.addAndGet(granted - used);
+        }
+
+        Flow flow = flows.get(id);
+        if (flow == null) return;
+
+        if (drained) {
+            flows.remove(id);
+        } else {
+            flow.deficit = flow.credit - used;
+        }
+    }
+
+    /**
+     * Drop a queue from scheduling (idle, finished or logged out).
+     */
+    public void release(RegionPartition.Key id) {
+        flows.remove(id);
+    }
+
+    /**
+     * Number of queues currently sharing the budget.
+     */
+    public int activeQueues() {
+        return flows.size();
+    }
+
+    /**
+     * Current global tick. Used as the clock for work item cooldowns.
+     */
+    public long currentTick() {
+        return tick;
+    }
+
+    public void shutdown() {
+        if (refillTask != null) {
+            refillTask.cancel();
+        }
+        flows.clear();
+    }
+
+    /**
+     * Total budget per tick in the current unit.
+     */
+    private long capacity() {
+        return cfg.timeSlicedBudget() ? controller.sliceNanos() : cfg.globalBlocksPerTick();
+    }
+
+    /**
+     * Most a single queue may spend in one tick.
+     */
+    private long flowCap() {
+        return cfg.timeSlicedBudget() ? capacity() : cfg.blocksPerTick();
+    }
+
+    /**
+     * Atomically take up to {@code want} from the pool.
+     */
+    private long take(long want) {
+        while (want > 0) {
+            long available = pool.get();
+            if (available <= 0) return 0;
+            long granted = Math.min(available, want);
+            if (pool.compareAndSet(available, available - granted)) {
+                return granted;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Per-queue DRR state. Only touched from the owning partition's thread.
+     */
+    private static final class Flow {
+        long deficit;
+        long credit;
+    }
+}
@@ -0,0 +1,163 @@
+package net.ppekkungz.essentialUtils.work;
+
+import net.ppekkungz.essentialUtils.util.LeafDropUtil;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * One activation (a tree, a vein, a field) and everything tracked for it:
+ * origin, feature, result accumulator, collected drops and the number of
+ * items still queued. A player can run several jobs at once; their items
+ * share the player's per-region queues, which interleave them.
+ *
+ * Queued items only store a reference to the job instead of their own
+ * copies of the player, world and feature.
+ *
+ * Also the handle for stopping the job early: {@link #cancel()} drops its
+ * remaining items, while what was already broken is still summarised and
+ * its drops delivered.
+ */
+public final class Job {
+
+    /**
+     * Why a job was stopped before it finished.
+     */
+    public enum CancelReason {
+        /** Cancelled through the API */
+        MANUAL,
+        /** The player switched away from the tool that started it */
+        TOOL_SWITCH,
+        /** The player moved too far from where it started */
+        MOVED_AWAY,
+        /** The region doing the work is running too slowly */
+        REGION_LAGGING,
+        /** The tool is down to its last point of durability */
+        TOOL_WORN
+    }
+
+    public final Player player;
+    public final World world;
+    public final WorkItem.FeatureTag feature;
+
+    // Block the player broke to start the job
+    public final Location origin;
+
+    // Where the job's collected drops are spawned when it finishes
+    public final Location dropLocation;
+    public final DropCollector drops = new DropCollector();
+
+    // Result accumulators for the summary (null unless the feature uses them)
+    public final LeafDropUtil.TreeFellerResult treeResult;
+    public final Material logType;
+    public final Location stumpLocation;
+    public final VeinMineResult veinResult;
+
+    // When the job was triggered, and whether its first item was handled yet
+    final long createdNanos = System.nanoTime();
+    final AtomicBoolean started = new AtomicBoolean();
+
+    // Items submitted but not yet done; the job finishes when this hits zero
+    final AtomicInteger pending = new AtomicInteger();
+
+    // Still being fed targets by a TargetFeed; the job can't finish until it isn't
+    volatile boolean feeding;
+    private final AtomicBoolean finished = new AtomicBoolean();
+
+    // Set when drops go to the player's inventory (indexed on the player's thread at submit)
+    volatile SlotIndex slots;
+
+    // Held tool when the job was submitted (drops and enchantments use this snapshot)
+    volatile ToolContext tool;
+
+    // Service the job was submitted to, used by cancel()
+    volatile WorkService owner;
+
+    // Id in the job journal (0 if not journaled)
+    volatile long journalId;
+
+    private final AtomicReference<CancelReason> cancelled = new AtomicReference<>();
+
+    private Job(Player player, WorkItem.FeatureTag feature, Location origin, Location dropLocation,
+                Material logType, Location stumpLocation, Material oreType) {
+        this.player = player;
+        this.world = origin.getWorld();
+        this.feature = feature;
+        this.origin = origin;
+        this.dropLocation = dropLocation;
+        this.logType = logType;
+        this.stumpLocation = stumpLocation;
+        this.treeResult = feature == WorkItem.FeatureTag.TREE ? new LeafDropUtil.TreeFellerResult() : null;
+        this.veinResult = feature == WorkItem.FeatureTag.VEIN ? new VeinMineResult(origin, oreType) : null;
+    }
+
+    /**
+     * Fell a tree; drops land on the stump.
+     */
+    public static Job treeFeller(Player p, Location origin, Material logType, Location stumpLocation) {
+        return new Job(p, WorkItem.FeatureTag.TREE, origin, stumpLocation.clone().add(0.5, 1, 0.5),
+            logType, stumpLocation, null);
+    }
+
+    /**
+     * Mine an ore vein; drops land on the origin block.
+     */
+    public static Job veinMine(Player p, Location origin, Material oreType) {
+        return new Job(p, WorkItem.FeatureTag.VEIN, origin, origin.clone().add(0.5, 0.5, 0.5),
+            null, null, oreType);
+    }
+
+    /**
+     * Harvest a field; drops land on the origin block.
+     */
+    public static Job autoFarm(Player p, Location origin) {
+        return new Job(p, WorkItem.FeatureTag.FARM, origin, origin.clone().add(0.5, 0.5, 0.5),
+            null, null, null);
+    }
+
+    /**
+     * Stop the job. Safe from any thread; returns false if already cancelled
+     * or never submitted.
+     */
+    public boolean cancel() {
+        WorkService service = owner;
+        return service != null && service.cancel(this, CancelReason.MANUAL);
+    }
+
+    public boolean isCancelled() {
+        return cancelled.get() != null;
+    }
+
+    /**
+     * Why the job was cancelled, or null if it wasn't.
+     */
+    public CancelReason cancelReason() {
+        return cancelled.get();
+    }
+
+    /**
+     * True once the job has finished (all items done, or the player left).
+     */
+    public boolean isFinished() {
+        return finished.get();
+    }
+
+    /**
+     * Claim the job's completion (first caller wins).
+     */
+    boolean markFinished() {
+        return finished.compareAndSet(false, true);
+    }
+
+    /**
+     * Record the cancellation; only the first reason sticks.
+     */
+    boolean markCancelled(CancelReason reason) {
+        return cancelled.compareAndSet(null, reason);
+    }
+}
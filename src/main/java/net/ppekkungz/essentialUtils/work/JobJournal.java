@@ -0,0 +1,720 @@
+package net.ppekkungz.essentialUtils.work;
+
+import net.ppekkungz.essentialUtils.util.LeafDropUtil;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped journal of in-flight jobs, so work cut short
+ * by a crash or restart resumes instead of leaving half-felled trees and
+ * lost drops behind.
+ *
+ * A job is journaled as a START record with its items, ITEMS records for
+ * items queued later, CHECKPOINT records with what a partition finished
+ * in one tick (plus the drops collected and the job's results so far),
+ * CANCEL when it is stopped early and END once it is summarised.
+ *
+ * Callers only hand records over to a single writer thread; nothing is
+ * encoded or written on a tick thread. Each record carries the file's
+ * epoch and a CRC, so a torn tail or leftovers of an earlier epoch end the
+ * replay. The file starts a new epoch whenever no journaled job is left.
+ * It is compacted when opened, and whenever it has grown past
+ * {@value #COMPACT_BYTES} bytes and twice its last compacted size: the
+ * open jobs are rewritten as a new epoch into a fresh file, which then
+ * replaces the old one, so the journal also shrinks again.
+ *
+ * If writing fails (disk full, mapping too large), journaling is switched
+ * off until the next start instead of leaving a half-written file behind.
+ *
+ * Jobs found on open are parked per player until they are back online.
+ */
+public final class JobJournal {
+    private static final int MAGIC = 0x45554A31; // "EUJ1"
+    private static final int HEADER = 16;        // magic, epoch, material count, reserved
+    private static final int INITIAL_SIZE = 256 * 1024;
+    private static final int COMPACT_BYTES = 16 * 1024 * 1024;
+    // A mapping is indexed by int
+    private static final long MAX_SIZE = Integer.MAX_VALUE;
+
+    private static final byte START = 1;
+    private static final byte ITEMS = 2;
+    private static final byte CHECKPOINT = 3;
+    private static final byte CANCEL = 4;
+    private static final byte END = 5;
+
+    /**
+     * Encodes a record body on the writer thread.
+     */
+    @FunctionalInterface
+    private interface Body {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private final Path path;
+    private final Logger log;
+    private final long syncNanos;
+    private final ExecutorService writer;
+    private final AtomicLong ids = new AtomicLong();
+
+    // Jobs read back on open, waiting for their player
+    private final Map<UUID, List<Recovered>> parked = new ConcurrentHashMap<>();
+
+    // Set once writing failed; everything after is dropped
+    private volatile boolean failed;
+
+    // Writer thread only
+    private FileChannel channel;
+    private MappedByteBuffer buf;
+    private int epoch;
+    private final Set<Long> open = new HashSet<>();
+    private final ByteArrayOutputStream scratch = new ByteArrayOutputStream(256);
+    private final CRC32 crc = new CRC32();
+    private long lastSync;
+    // Position past which the file is compacted, and whether that is underway
+    private long compactAt = COMPACT_BYTES;
+    private boolean compacting;
+
+    /**
+     * Open the journal at {@code path}, reading back any unfinished jobs.
+     */
+    public JobJournal(Path path, Logger log, long syncMillis) throws IOException {
+        this.path = path;
+        this.log = log;
+        this.syncNanos = TimeUnit.MILLISECONDS.toNanos(syncMillis);
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "EssentialUtils-Journal");
+            t.setDaemon(true);
+            return t;
+        });
+
+        Files.createDirectories(path.getParent());
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(INITIAL_SIZE, channel.size()));
+
+        List<Recovered> found = replay();
+        try {
+            rewrite(found);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        for (Recovered r : found) {
+            parked.computeIfAbsent(r.player, k -> new ArrayList<>()).add(r);
+        }
+        if (!found.isEmpty()) {
+            log.info("Recovered " + found.size() + " unfinished job(s) from the journal");
+        }
+    }
+
+    // ==================== RECORDING ====================
+
+    /**
+     * Journal a newly submitted job with its first batch; assigns its id.
+     */
+    void start(Job job, WorkBatch batch) {
+        long id = ids.incrementAndGet();
+        job.journalId = id;
+        Location o = job.origin;
+        Location s = job.stumpLocation;
+        submit(() -> {
+            append(START, id, out -> {
+                out.writeByte(job.feature.ordinal());
+                writeUuid(out, job.player.getUniqueId());
+                writeUuid(out, job.world.getUID());
+                out.writeInt(o.getBlockX());
+                out.writeInt(o.getBlockY());
+                out.writeInt(o.getBlockZ());
+                out.writeShort(ordinal(job.logType));
+                out.writeBoolean(s != null);
+                if (s != null) {
+                    out.writeInt(s.getBlockX());
+                    out.writeInt(s.getBlockY());
+                    out.writeInt(s.getBlockZ());
+                }
+                out.writeShort(ordinal(job.veinResult != null ? job.veinResult.getOreType() : null));
+                writeItems(out, batch);
+            });
+            open.add(id);
+        });
+    }
+
+    /**
+     * Journal items queued for a job after its first batch.
+     */
+    void items(Job job, WorkBatch batch) {
+        long id = job.journalId;
+        if (id == 0) return;
+        submit(() -> append(ITEMS, id, out -> writeItems(out, batch)));
+    }
+
+    /**
+     * Journal what one partition finished for a job in one tick. The job's
+     * results are read on the writer thread, so they may already include
+     * later progress; replaying an item whose block is gone is a no-op.
+     */
+    void checkpoint(Job job, Progress progress) {
+        long id = job.journalId;
+        if (id == 0) return;
+        submit(() -> append(CHECKPOINT, id, out -> {
+            out.writeInt(progress.size);
+            for (int i = 0; i < progress.size; i++) {
+                out.writeLong(progress.pos[i]);
+                out.writeByte(progress.action[i]);
+            }
+            out.writeInt(progress.drops.size());
+            for (ItemStack drop : progress.drops) {
+                byte[] bytes = drop.serializeAsBytes();
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            byte[] results = encodeResults(job);
+            out.writeInt(results.length);
+            out.write(results);
+        }));
+    }
+
+    void cancel(Job job, Job.CancelReason reason) {
+        long id = job.journalId;
+        if (id == 0) return;
+        submit(() -> append(CANCEL, id, out -> out.writeByte(reason.ordinal())));
+    }
+
+    /**
+     * Journal that a job is done and its drops handed out. Once no job is
+     * left open the file starts over, shrinking back if it had grown.
+     */
+    void end(Job job) {
+        long id = job.journalId;
+        if (id == 0) return;
+        submit(() -> {
+            append(END, id, out -> {});
+            if (open.remove(id) && open.isEmpty()) {
+                if (buf.capacity() > INITIAL_SIZE) {
+                    rewrite(List.of());
+                } else {
+                    reset();
+                }
+            }
+        });
+    }
+
+    /**
+     * Take the parked jobs of a player who is back.
+     */
+    List<Recovered> takeParked(Player p) {
+        List<Recovered> list = parked.remove(p.getUniqueId());
+        return list != null ? list : List.of();
+    }
+
+    /**
+     * Put back a job that can't resume yet (its world isn't loaded).
+     */
+    void park(Recovered r) {
+        parked.computeIfAbsent(r.player, k -> new ArrayList<>()).add(r);
+    }
+
+    /**
+     * Write out everything handed over so far and close the file. Jobs still
+     * open stay in the journal and resume on the next start.
+     */
+    public void close() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                log.warning("Job journal writer didn't finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failed) return;
+        try {
+            buf.force();
+            channel.close();
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Failed to close the job journal", e);
+        }
+    }
+
+    private void submit(Runnable task) {
+        if (failed) return;
+        try {
+            writer.execute(() -> {
+                if (failed) return;
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    fail(e);
+                }
+            });
+        } catch (RejectedExecutionException ignored) {
+            // Shutting down
+        }
+    }
+
+    /**
+     * Stop journaling after a write failed. Writer thread only.
+     */
+    private void fail(RuntimeException e) {
+        failed = true;
+        log.log(Level.SEVERE, "Failed to write the job journal; journaling is off until the next start", e);
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Already failing
+        }
+    }
+
+    // ==================== FILE FORMAT ====================
+
+    /**
+     * Record: [int length][int epoch][byte type][long job][body][int crc],
+     * with the CRC over everything between length and itself.
+     */
+    private void append(byte type, long job, Body body) {
+        scratch.reset();
+        DataOutputStream out = new DataOutputStream(scratch);
+        try {
+            out.writeInt(epoch);
+            out.writeByte(type);
+            out.writeLong(job);
+            body.write(out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] bytes = scratch.toByteArray();
+        crc.reset();
+        crc.update(bytes);
+
+        ensureCapacity(bytes.length + 8);
+        buf.putInt(bytes.length);
+        buf.put(bytes);
+        buf.putInt((int) crc.getValue());
+        // Terminate the log so a replay never reads past the last record
+        if (buf.remaining() >= 4) buf.putInt(buf.position(), 0);
+
+        long now = System.nanoTime();
+        if (now - lastSync >= syncNanos) {
+            buf.force();
+            lastSync = now;
+        }
+
+        if (!compacting && buf.position() >= compactAt) {
+            rewrite(replay());
+        }
+    }
+
+    /**
+     * Grow the mapping (and the file) so {@code len} more bytes fit.
+     */
+    private void ensureCapacity(int len) {
+        if (buf.remaining() >= len + 4) return;
+        int pos = buf.position();
+        long size = Math.min(MAX_SIZE, Math.max((long) buf.capacity() * 2, pos + len + 4L));
+        if (size < pos + len + 4L) {
+            throw new IllegalStateException("Job journal is full (" + pos + " bytes of open jobs)");
+        }
+        try {
+            buf.force();
+            buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to grow the job journal", e);
+        }
+        buf.position(pos);
+    }
+
+    /**
+     * Start a new epoch at the top of the file.
+     */
+    private void reset() {
+        epoch++;
+        buf.putInt(0, MAGIC);
+        buf.putInt(4, epoch);
+        buf.putInt(8, Material.values().length);
+        buf.putInt(HEADER, 0);
+        buf.position(HEADER);
+    }
+
+    /**
+     * Read back the jobs of the current epoch that never ended.
+     */
+    private List<Recovered> replay() {
+        Map<Long, Recovered> jobs = new LinkedHashMap<>();
+        if (buf.getInt(0) != MAGIC) return new ArrayList<>();
+        epoch = buf.getInt(4);
+        if (buf.getInt(8) != Material.values().length) {
+            log.warning("Job journal was written by a different server version; discarding it");
+            return new ArrayList<>();
+        }
+
+        buf.position(HEADER);
+        try {
+            while (buf.remaining() >= 4) {
+                int len = buf.getInt();
+                if (len <= 0 || len + 4 > buf.remaining()) break;
+                byte[] bytes = new byte[len];
+                buf.get(bytes);
+                crc.reset();
+                crc.update(bytes);
+                if (buf.getInt() != (int) crc.getValue()) break;
+
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+                if (in.readInt() != epoch) break;
+                read(in.readByte(), in.readLong(), in, jobs);
+            }
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            log.log(Level.WARNING, "Job journal ends in a damaged record; replayed up to it", e);
+        }
+
+        jobs.keySet().forEach(id -> ids.accumulateAndGet(id, Math::max));
+        return new ArrayList<>(jobs.values());
+    }
+
+    private void read(byte type, long id, DataInputStream in, Map<Long, Recovered> jobs) throws IOException {
+        if (type == START) {
+            Recovered r = new Recovered(id, WorkItem.FeatureTag.values()[in.readByte()],
+                readUuid(in), readUuid(in), in.readInt(), in.readInt(), in.readInt(), material(in.readShort()));
+            if (in.readBoolean()) {
+                r.stump = new int[] {in.readInt(), in.readInt(), in.readInt()};
+            }
+            r.oreType = material(in.readShort());
+            readItems(in, r);
+            jobs.put(id, r);
+            return;
+        }
+
+        Recovered r = jobs.get(id);
+        if (r == null) return;
+        switch (type) {
+            case ITEMS -> readItems(in, r);
+            case CHECKPOINT -> {
+                int done = in.readInt();
+                for (int i = 0; i < done; i++) {
+                    r.items.remove(new ItemId(in.readLong(), in.readByte()));
+                }
+                int drops = in.readInt();
+                for (int i = 0; i < drops; i++) {
+                    byte[] bytes = new byte[in.readInt()];
+                    in.readFully(bytes);
+                    r.drops.add(bytes);
+                }
+                byte[] results = new byte[in.readInt()];
+                in.readFully(results);
+                r.results = results;
+            }
+            case CANCEL -> {
+                r.cancelled = Job.CancelReason.values()[in.readByte()];
+                r.items.clear();
+            }
+            case END -> jobs.remove(id);
+            default -> throw new IOException("Unknown record type " + type);
+        }
+    }
+
+    /**
+     * Write {@code jobs} as the only content of a new epoch into a fresh
+     * file, then move it over the journal. Until the move the old file
+     * stays intact, so a crash midway loses nothing.
+     */
+    private void rewrite(List<Recovered> jobs) {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        FileChannel previous = channel;
+        compacting = true;
+        try {
+            channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+            buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, INITIAL_SIZE);
+            open.clear();
+            compact(jobs);
+            Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            previous.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compact the job journal", e);
+        } finally {
+            compacting = false;
+        }
+        compactAt = Math.max(COMPACT_BYTES, 2L * buf.position());
+    }
+
+    /**
+     * Append the recovered jobs to a fresh epoch.
+     */
+    private void compact(List<Recovered> jobs) {
+        reset();
+        for (Recovered r : jobs) {
+            append(START, r.id, out -> {
+                out.writeByte(r.feature.ordinal());
+                writeUuid(out, r.player);
+                writeUuid(out, r.world);
+                out.writeInt(r.x);
+                out.writeInt(r.y);
+                out.writeInt(r.z);
+                out.writeShort(ordinal(r.logType));
+                out.writeBoolean(r.stump != null);
+                if (r.stump != null) {
+                    for (int c : r.stump) out.writeInt(c);
+                }
+                out.writeShort(ordinal(r.oreType));
+                out.writeInt(r.items.size());
+                for (Item item : r.items.values()) {
+                    out.writeLong(item.pos);
+                    out.writeByte(item.action);
+                    out.writeByte(item.flags);
+                    out.writeShort(item.cooldown);
+                    out.writeShort(item.retries);
+                    out.writeShort(item.plant);
+                }
+            });
+            append(CHECKPOINT, r.id, out -> {
+                out.writeInt(0);
+                out.writeInt(r.drops.size());
+                for (byte[] drop : r.drops) {
+                    out.writeInt(drop.length);
+                    out.write(drop);
+                }
+                out.writeInt(r.results.length);
+                out.write(r.results);
+            });
+            if (r.cancelled != null) {
+                append(CANCEL, r.id, out -> out.writeByte(r.cancelled.ordinal()));
+            }
+            open.add(r.id);
+        }
+        buf.force();
+    }
+
+    private static void writeItems(DataOutputStream out, WorkBatch batch) throws IOException {
+        out.writeInt(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            out.writeLong(batch.pos[i]);
+            out.writeByte(batch.action[i]);
+            out.writeByte(batch.flags[i]);
+            out.writeShort(batch.cooldown[i]);
+            out.writeShort(batch.retries[i]);
+            out.writeShort(batch.plant[i]);
+        }
+    }
+
+    private static void readItems(DataInputStream in, Recovered r) throws IOException {
+        int n = in.readInt();
+        for (int i = 0; i < n; i++) {
+            Item item = new Item(in.readLong(), in.readByte(), in.readByte(),
+                in.readShort(), in.readShort(), in.readShort());
+            r.items.put(new ItemId(item.pos, item.action), item);
+        }
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    private static int ordinal(Material m) {
+        return m == null ? -1 : m.ordinal();
+    }
+
+    private static Material material(int ordinal) {
+        return ordinal < 0 ? null : WorkBatch.MATERIALS[ordinal];
+    }
+
+    // ==================== RESULTS ====================
+
+    /**
+     * Snapshot a job's summary counters.
+     */
+    private static byte[] encodeResults(Job job) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        DataOutputStream out = new DataOutputStream(bytes);
+        LeafDropUtil.TreeFellerResult tree = job.treeResult;
+        if (tree != null) {
+            synchronized (tree) {
+                out.writeInt(tree.logs);
+                out.writeInt(tree.leaves);
+                out.writeInt(tree.saplings);
+                out.writeInt(tree.apples);
+                out.writeInt(tree.sticks);
+            }
+        }
+        VeinMineResult vein = job.veinResult;
+        if (vein != null) {
+            synchronized (vein) {
+                out.writeInt(vein.getBlocksMined());
+                out.writeInt(vein.getTotalXP());
+                out.writeInt(vein.getFortuneLevel());
+                out.writeBoolean(vein.usedSilkTouch());
+                Map<Material, Integer> counts = vein.getDropCounts();
+                out.writeInt(counts.size());
+                for (Map.Entry<Material, Integer> e : counts.entrySet()) {
+                    out.writeShort(e.getKey().ordinal());
+                    out.writeInt(e.getValue());
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Restore a resumed job's summary counters from a snapshot.
+     */
+    private static void restoreResults(Job job, byte[] results) throws IOException {
+        if (results.length == 0) return;
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(results));
+        LeafDropUtil.TreeFellerResult tree = job.treeResult;
+        if (tree != null) {
+            synchronized (tree) {
+                tree.logs = in.readInt();
+                tree.leaves = in.readInt();
+                tree.saplings = in.readInt();
+                tree.apples = in.readInt();
+                tree.sticks = in.readInt();
+            }
+        }
+        VeinMineResult vein = job.veinResult;
+        if (vein != null) {
+            int mined = in.readInt();
+            int xp = in.readInt();
+            int fortune = in.readInt();
+            boolean silk = in.readBoolean();
+            Map<Material, Integer> counts = new HashMap<>();
+            int n = in.readInt();
+            for (int i = 0; i < n; i++) {
+                counts.put(material(in.readShort()), in.readInt());
+            }
+            vein.restore(mined, xp, fortune, silk, counts);
+        }
+    }
+
+    // ==================== RECOVERED JOBS ====================
+
+    private record ItemId(long pos, byte action) {}
+
+    private record Item(long pos, byte action, byte flags, short cooldown, short retries, short plant) {}
+
+    /**
+     * An unfinished job read back from the journal.
+     */
+    static final class Recovered {
+        final long id;
+        final WorkItem.FeatureTag feature;
+        final UUID player;
+        final UUID world;
+        final int x, y, z;
+        final Material logType;
+        int[] stump;
+        Material oreType;
+        final Map<ItemId, Item> items = new LinkedHashMap<>();
+        final List<byte[]> drops = new ArrayList<>();
+        byte[] results = new byte[0];
+        Job.CancelReason cancelled;
+
+        private Recovered(long id, WorkItem.FeatureTag feature, UUID player, UUID world,
+                          int x, int y, int z, Material logType) {
+            this.id = id;
+            this.feature = feature;
+            this.player = player;
+            this.world = world;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.logType = logType;
+        }
+
+        /**
+         * Rebuild the job for its player, or null if its world isn't loaded.
+         * Results and collected drops are restored; the job keeps its id.
+         */
+        Job toJob(Player p, World w) {
+            if (w == null) return null;
+            Location origin = new Location(w, x, y, z);
+            Job job = switch (feature) {
+                case TREE -> Job.treeFeller(p, origin, logType,
+                    stump != null ? new Location(w, stump[0], stump[1], stump[2]) : origin);
+                case VEIN -> Job.veinMine(p, origin, oreType);
+                default -> Job.autoFarm(p, origin);
+            };
+            job.journalId = id;
+            try {
+                restoreResults(job, results);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            for (byte[] drop : drops) {
+                job.drops.add(ItemStack.deserializeBytes(drop));
+            }
+            return job;
+        }
+
+        /**
+         * The items still left, with their stagger kept but shifted to start now.
+         */
+        WorkBatch remaining() {
+            WorkBatch batch = new WorkBatch(Math.max(1, items.size()));
+            int first = Integer.MAX_VALUE;
+            for (Item item : items.values()) first = Math.min(first, item.cooldown);
+            for (Item item : items.values()) {
+                batch.add(item.pos, WorkItem.Action.values()[item.action], item.flags, item.cooldown - first,
+                    item.retries, item.plant == 0 ? null : WorkBatch.MATERIALS[item.plant - 1]);
+            }
+            return batch;
+        }
+    }
+
+    // ==================== PROGRESS ====================
+
+    /**
+     * What a partition finished for one job during one tick, handed to
+     * {@link #checkpoint} at the end of it. Region thread only until then.
+     */
+    static final class Progress {
+        long[] pos = new long[16];
+        byte[] action = new byte[16];
+        int size;
+        final List<ItemStack> drops = new ArrayList<>();
+
+        void done(long blockKey, WorkItem.Action a) {
+            if (size == pos.length) {
+                pos = Arrays.copyOf(pos, size * 2);
+                action = Arrays.copyOf(action, size * 2);
+            }
+            pos[size] = blockKey;
+            action[size++] = (byte) a.ordinal();
+        }
+    }
+}
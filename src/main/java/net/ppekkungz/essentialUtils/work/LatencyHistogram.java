@@ -0,0 +1,114 @@
+package net.ppekkungz.essentialUtils.work;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-memory latency histogram over a rolling time window.
+ *
+ * Values are recorded in microseconds into log-linear buckets: every power
+ * of two is split into {@value #SUB} linear steps, so a reported percentile
+ * is within 25% of the true value while 120 buckets cover 1µs to ~35 min.
+ *
+ * Time is cut into slices of {@link #SLICE_SECONDS}; a ring of
+ * {@link #SLICES} slices covers the longest window, and a slice is cleared
+ * when it comes around again. Recording is lock-free from any thread.
+ */
+public final class LatencyHistogram {
+    public static final int SLICE_SECONDS = 15;
+    public static final int SLICES = 20;
+
+    private static final int SUB_BITS = 2;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final long MAX_MICROS = (1L << 31) - 1;
+    private static final int BUCKETS = bucket(MAX_MICROS) + 1;
+    private static final long SLICE_NANOS = TimeUnit.SECONDS.toNanos(SLICE_SECONDS);
+
+    /**
+     * Percentiles over one window, in microseconds.
+     */
+    public record Snapshot(long count, long p50, long p95, long p99, long max) {}
+
+    private static final class Slice {
+        final AtomicLong epoch = new AtomicLong(-1);
+        final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        final AtomicLong max = new AtomicLong();
+    }
+
+    private final Slice[] slices = new Slice[SLICES];
+
+    public LatencyHistogram() {
+        for (int i = 0; i < SLICES; i++) {
+            slices[i] = new Slice();
+        }
+    }
+
+    public void recordNanos(long nanos) {
+        long micros = Math.min(MAX_MICROS, Math.max(0, nanos / 1_000));
+        long epoch = System.nanoTime() / SLICE_NANOS;
+        Slice s = slices[(int) Math.floorMod(epoch, (long) SLICES)];
+
+        long seen = s.epoch.get();
+        if (seen != epoch && s.epoch.compareAndSet(seen, epoch)) {
+            // Slice came around again - forget what it held
+            for (int i = 0; i < BUCKETS; i++) s.counts.set(i, 0);
+            s.max.set(0);
+        }
+        s.counts.incrementAndGet(bucket(micros));
+        s.max.accumulateAndGet(micros, Math::max);
+    }
+
+    /**
+     * Percentiles over the last {@code seconds} (rounded up to whole slices,
+     * at most {@link #SLICES} of them).
+     */
+    public Snapshot snapshot(int seconds) {
+        int n = Math.min(SLICES, Math.max(1, (seconds + SLICE_SECONDS - 1) / SLICE_SECONDS));
+        long now = System.nanoTime() / SLICE_NANOS;
+
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        long max = 0;
+        for (Slice s : slices) {
+            long e = s.epoch.get();
+            if (e < 0 || now - e >= n) continue;
+            for (int i = 0; i < BUCKETS; i++) {
+                long c = s.counts.get(i);
+                counts[i] += c;
+                total += c;
+            }
+            max = Math.max(max, s.max.get());
+        }
+        return new Snapshot(total, percentile(counts, total, 0.50, max),
+            percentile(counts, total, 0.95, max), percentile(counts, total, 0.99, max), max);
+    }
+
+    private static long percentile(long[] counts, long total, double p, long max) {
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(p * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(max, upperBound(i));
+        }
+        return max;
+    }
+
+    /**
+     * Bucket of a value: exact below {@value #SUB}, then {@value #SUB}
+     * steps per power of two.
+     */
+    private static int bucket(long v) {
+        if (v < SUB) return (int) v;
+        int shift = 63 - Long.numberOfLeadingZeros(v) - SUB_BITS;
+        return (shift + 1) * SUB + (int) ((v >>> shift) - SUB);
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < SUB) return bucket;
+        int shift = bucket / SUB - 1;
+        long low = (long) (SUB + bucket % SUB) << shift;
+        return low + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,175 @@
+package net.ppekkungz.essentialUtils.work;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import net.ppekkungz.essentialUtils.world.BlockSink;
+import net.ppekkungz.essentialUtils.world.BlockSource;
+import net.ppekkungz.essentialUtils.world.BukkitWorld;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The part of a player's work that lives in one Folia region section.
+ *
+ * Regions are always made of whole sections, so every block in a partition
+ * is owned by the same region thread. Items arrive through a concurrent
+ * inbox from any thread and are moved into the {@link WorkQueue} by the
+ * partition's own tick, so the queue itself is only touched by one thread.
+ *
+ * Items of several jobs of the same player can share a partition; each
+ * item refers to its own {@link Job}.
+ *
+ * While only delayed items are left, the partition sleeps until the next
+ * one is due instead of ticking every tick; new items wake it early.
+ */
+public class RegionPartition {
+
+    /**
+     * Identifies a partition: one player's work in one region section.
+     */
+    public record Key(UUID player, UUID world, int regionX, int regionZ) {
+
+        public static Key of(Player p, World w, long blockKey, int regionShift) {
+            return new Key(p.getUniqueId(), w.getUID(),
+                (Block.getBlockKeyX(blockKey) >> 4) >> regionShift,
+                (Block.getBlockKeyZ(blockKey) >> 4) >> regionShift);
+        }
+    }
+
+    public final Key key;
+    public final Player player;
+    public final World world;
+
+    // Chunk used to address the owning region on the RegionScheduler
+    public final int chunkX;
+    public final int chunkZ;
+
+    // A batch of one job's items handed over from another thread
+    private record Pending(Job job, WorkBatch batch) {}
+
+    private final Queue<Pending> inbox = new ConcurrentLinkedQueue<>();
+    private final WorkQueue queue = new WorkQueue();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final AtomicBoolean wakeRequested = new AtomicBoolean();
+
+    private volatile ScheduledTask task;
+
+    // Set by the region thread while no loop is running; read by producers
+    volatile boolean sleeping;
+
+    // Block access for the handlers (region thread only)
+    final BlockSource source;
+    final BlockSink sink;
+
+    // Block removals deferred to the end of the current tick (region thread only)
+    final BulkMutation bulk;
+
+    // Journal progress made this tick, per job (region thread only)
+    private final Map<Job, JobJournal.Progress> progress = new HashMap<>();
+
+    // Smoothed time between this partition's ticks, i.e. its region's tick time (region thread only)
+    long lastTickNanos;
+    double tickMillis = 50.0;
+
+    public RegionPartition(Key key, Player player, World world, long anchorKey) {
+        this.key = key;
+        this.player = player;
+        this.world = world;
+        BukkitWorld blocks = new BukkitWorld(world);
+        this.source = blocks;
+        this.sink = blocks;
+        this.bulk = new BulkMutation(source, sink);
+        this.chunkX = Block.getBlockKeyX(anchorKey) >> 4;
+        this.chunkZ = Block.getBlockKeyZ(anchorKey) >> 4;
+    }
+
+    /**
+     * This tick's journal progress for a job. Owning region thread only.
+     */
+    JobJournal.Progress progress(Job job) {
+        return progress.computeIfAbsent(job, k -> new JobJournal.Progress());
+    }
+
+    /**
+     * Hand this tick's progress to the journal as one checkpoint per job.
+     * Owning region thread only.
+     */
+    void checkpoint(JobJournal journal) {
+        if (progress.isEmpty()) return;
+        progress.forEach(journal::checkpoint);
+        progress.clear();
+    }
+
+    /**
+     * Hand a batch of a job's items to this partition. Safe from any thread.
+     */
+    public void offer(Job job, WorkBatch batch) {
+        inbox.add(new Pending(job, batch));
+    }
+
+    /**
+     * Advance the queue's clock to {@code tick} and move newly offered items
+     * into it. Owning region thread only.
+     */
+    WorkQueue drain(long tick) {
+        queue.advanceTo(tick);
+        Pending p;
+        while ((p = inbox.poll()) != null) {
+            queue.addAll(p.job, p.batch);
+        }
+        return queue;
+    }
+
+    /**
+     * True when there is nothing queued or waiting in the inbox.
+     */
+    boolean isIdle() {
+        return queue.isEmpty() && inbox.isEmpty();
+    }
+
+    boolean hasInbox() {
+        return !inbox.isEmpty();
+    }
+
+    /**
+     * Claim a wake-up while sleeping (first caller wins until the wake runs).
+     */
+    boolean requestWake() {
+        return wakeRequested.compareAndSet(false, true);
+    }
+
+    void clearWakeRequest() {
+        wakeRequested.set(false);
+    }
+
+    /**
+     * Claim the right to start this partition's loop (first caller wins).
+     */
+    boolean markStarted() {
+        return started.compareAndSet(false, true);
+    }
+
+    void setTask(ScheduledTask task) {
+        this.task = task;
+    }
+
+    /**
+     * Cancel the running loop or sleep timer, keeping queued work.
+     */
+    void cancelTask() {
+        ScheduledTask t = task;
+        if (t != null) t.cancel();
+    }
+
+    void cancel() {
+        cancelTask();
+        inbox.clear();
+    }
+}
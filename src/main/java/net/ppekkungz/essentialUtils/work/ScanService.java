@@ -0,0 +1,229 @@
+package net.ppekkungz.essentialUtils.work;
+
+import net.ppekkungz.essentialUtils.EssentialUtils;
+import net.ppekkungz.essentialUtils.world.BlockSource;
+import net.ppekkungz.essentialUtils.world.KeyBuffer;
+import net.ppekkungz.essentialUtils.world.SnapshotWorld;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * Runs target scans off the tick thread: the chunks around the origin are
+ * snapshotted on its region thread, the scan runs on a virtual thread, and
+ * the result is handed back to the origin's region to start the job.
+ *
+ * The tick only pays for the snapshots ({@link WorkMetrics.Timer#SNAPSHOT});
+ * scan time ({@link WorkMetrics.Timer#COLLECT}) is spent elsewhere.
+ *
+ * Scans can also start speculatively while a player is still mining the
+ * origin ({@link #preScan}); the break then takes the finished result
+ * ({@link #takePreScan}) instead of scanning.
+ */
+public final class ScanService {
+
+    /**
+     * A scan of the snapshot for a block key.
+     */
+    @FunctionalInterface
+    public interface Scan {
+        KeyBuffer collect(BlockSource world, long origin);
+    }
+
+    /**
+     * Gets a background scan's result: the snapshot it read, the targets it
+     * found, and what the player held when it was triggered.
+     */
+    @FunctionalInterface
+    public interface Result {
+        void accept(BlockSource world, KeyBuffer targets, WorkService.Held held);
+    }
+
+    /**
+     * A finished pre-scan: the snapshot it read and the targets it found.
+     */
+    public record Prepared(BlockSource world, KeyBuffer targets) {}
+
+    private final EssentialUtils plugin;
+    private final WorkMetrics metrics;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Scans in flight per player, counted against the job limit
+    private final Map<UUID, AtomicInteger> pending = new ConcurrentHashMap<>();
+
+    // Latest pre-scan per player; a player mines one block at a time
+    private final Map<UUID, PreScan> preScans = new ConcurrentHashMap<>();
+
+    ScanService(EssentialUtils plugin, WorkMetrics metrics) {
+        this.plugin = plugin;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Snapshot the chunks within {@code chunkRadius} of {@code origin} and
+     * scan them in the background; {@code then} gets the snapshot, the
+     * targets and {@code held} on the origin's region thread, if the player
+     * is still online. {@code held} is taken when the scan is triggered, so
+     * the job uses that tool rather than whatever is held once the scan is
+     * done. Must be called on the origin's region thread. Returns false if
+     * the service is shut down.
+     */
+    public boolean submit(Player p, Location origin, WorkItem.FeatureTag feature, WorkService.Held held,
+                          int chunkRadius, Scan scan, Result then) {
+        long t0 = System.nanoTime();
+        SnapshotWorld world = SnapshotWorld.capture(origin.getWorld(), origin.getBlockX(), origin.getBlockZ(), chunkRadius);
+        metrics.record(WorkMetrics.Timer.SNAPSHOT, feature, System.nanoTime() - t0);
+
+        long key = Block.getBlockKey(origin.getBlockX(), origin.getBlockY(), origin.getBlockZ());
+        AtomicInteger count = pending.computeIfAbsent(p.getUniqueId(), k -> new AtomicInteger());
+        count.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                KeyBuffer targets;
+                try {
+                    long t1 = System.nanoTime();
+                    targets = scan.collect(world, key);
+                    metrics.record(WorkMetrics.Timer.COLLECT, feature, System.nanoTime() - t1);
+                } catch (RuntimeException ex) {
+                    plugin.getLogger().log(Level.WARNING, "Background scan failed", ex);
+                    done(p, count);
+                    return;
+                }
+
+                plugin.getServer().getRegionScheduler().execute(plugin, origin, () -> {
+                    done(p, count);
+                    if (p.isOnline()) then.accept(world, targets, held);
+                });
+            });
+        } catch (RejectedExecutionException ex) {
+            done(p, count);
+            return false;
+        }
+        return true;
+    }
+
+    // ==================== PRE-SCAN ====================
+
+    /**
+     * Start scanning from a block the player has started mining, with the
+     * tool tier they mine it with. Replaces the player's previous pre-scan
+     * unless it was for the same block, tier and feature. Must be called on
+     * the block's region thread.
+     */
+    public void preScan(Player p, Block origin, WorkItem.FeatureTag feature, int tier, int chunkRadius, Scan scan) {
+        UUID world = origin.getWorld().getUID();
+        long key = origin.getBlockKey();
+        PreScan previous = preScans.get(p.getUniqueId());
+        if (previous != null && previous.matches(world, key, tier, feature)) return;
+
+        long t0 = System.nanoTime();
+        SnapshotWorld snapshot = SnapshotWorld.capture(origin.getWorld(), origin.getX(), origin.getZ(), chunkRadius);
+        metrics.record(WorkMetrics.Timer.SNAPSHOT, feature, System.nanoTime() - t0);
+
+        PreScan pre = new PreScan(world, key, tier, feature, origin.getType(), snapshot);
+        preScans.put(p.getUniqueId(), pre);
+        try {
+            executor.execute(() -> {
+                try {
+                    long t1 = System.nanoTime();
+                    pre.targets = scan.collect(snapshot, key);
+                    metrics.record(WorkMetrics.Timer.COLLECT, feature, System.nanoTime() - t1);
+                } catch (RuntimeException ex) {
+                    plugin.getLogger().log(Level.WARNING, "Background pre-scan failed", ex);
+                    preScans.remove(p.getUniqueId(), pre);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            preScans.remove(p.getUniqueId(), pre);
+        }
+    }
+
+    /**
+     * The player's finished pre-scan of a block, if it was taken with the
+     * same tool tier, is at most {@code maxAgeMillis} old and the block is
+     * still the same type; null otherwise. A pre-scan is only taken once.
+     */
+    public Prepared takePreScan(Player p, Block origin, WorkItem.FeatureTag feature, int tier, long maxAgeMillis) {
+        PreScan pre = preScans.remove(p.getUniqueId());
+        KeyBuffer targets = pre != null ? pre.targets : null;
+        if (targets == null
+                || !pre.matches(origin.getWorld().getUID(), origin.getBlockKey(), tier, feature)
+                || System.nanoTime() - pre.started > maxAgeMillis * 1_000_000L
+                || origin.getType() != pre.type) {
+            metrics.increment(WorkMetrics.Metric.PRESCAN_MISSES, feature);
+            return null;
+        }
+        metrics.increment(WorkMetrics.Metric.PRESCAN_HITS, feature);
+        return new Prepared(pre.snapshot, targets);
+    }
+
+    /**
+     * Forget the player's pre-scan (they stopped mining, or left).
+     */
+    public void cancelPreScan(Player p) {
+        preScans.remove(p.getUniqueId());
+    }
+
+    // ==================== PENDING ====================
+
+    /**
+     * Scans in flight for a player.
+     */
+    public int pending(Player p) {
+        AtomicInteger count = pending.get(p.getUniqueId());
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * Stop accepting scans; results of running ones are dropped.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        pending.clear();
+        preScans.clear();
+    }
+
+    private void done(Player p, AtomicInteger count) {
+        if (count.decrementAndGet() <= 0) {
+            pending.remove(p.getUniqueId(), count);
+        }
+    }
+
+    /**
+     * A speculative scan and what it was started for.
+     */
+    private static final class PreScan {
+        final UUID world;
+        final long key;
+        final int tier;
+        final WorkItem.FeatureTag feature;
+        final Material type;
+        final SnapshotWorld snapshot;
+        final long started = System.nanoTime();
+        // Set by the scan thread once done
+        volatile KeyBuffer targets;
+
+        PreScan(UUID world, long key, int tier, WorkItem.FeatureTag feature, Material type, SnapshotWorld snapshot) {
+            this.world = world;
+            this.key = key;
+            this.tier = tier;
+            this.feature = feature;
+            this.type = type;
+            this.snapshot = snapshot;
+        }
+
+        boolean matches(UUID world, long key, int tier, WorkItem.FeatureTag feature) {
+            return this.key == key && this.tier == tier && this.feature == feature && this.world.equals(world);
+        }
+    }
+}
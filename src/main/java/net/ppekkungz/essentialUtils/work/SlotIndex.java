@@ -0,0 +1,88 @@
+package net.ppekkungz.essentialUtils.work;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Free space in a player's inventory, indexed once when a job starts:
+ * partially filled slots by material, plus empty slots.
+ *
+ * Delivering a drop then goes straight to a slot that can take it instead
+ * of scanning every slot like {@code Inventory.addItem} does. The player may
+ * have changed their inventory since, so each slot is re-checked before use
+ * and stale entries are skipped.
+ *
+ * Only used from the player's own thread.
+ */
+public final class SlotIndex {
+    private final Map<Material, Deque<Integer>> partial = new EnumMap<>(Material.class);
+    private final Deque<Integer> empty = new ArrayDeque<>();
+
+    private SlotIndex() {}
+
+    /**
+     * Index the storage slots (hotbar and main inventory) of an inventory.
+     */
+    public static SlotIndex of(Inventory inv) {
+        SlotIndex index = new SlotIndex();
+        ItemStack[] contents = inv.getStorageContents();
+        for (int i = 0; i < contents.length; i++) {
+            ItemStack cur = contents[i];
+            if (cur == null || cur.getType().isAir()) {
+                index.empty.addLast(i);
+            } else if (cur.getAmount() < cur.getMaxStackSize()) {
+                index.partial.computeIfAbsent(cur.getType(), k -> new ArrayDeque<>()).addLast(i);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Put as much of a stack into the inventory as the indexed slots allow.
+     * Returns the amount that didn't fit.
+     */
+    public int deliver(Inventory inv, ItemStack stack) {
+        int left = stack.getAmount();
+        int max = stack.getMaxStackSize();
+
+        // Top up matching partial stacks first
+        Deque<Integer> slots = partial.get(stack.getType());
+        while (left > 0 && slots != null && !slots.isEmpty()) {
+            int i = slots.peekFirst();
+            ItemStack cur = inv.getItem(i);
+            if (cur == null || !cur.isSimilar(stack) || cur.getAmount() >= max) {
+                slots.pollFirst();
+                continue;
+            }
+
+            int add = Math.min(left, max - cur.getAmount());
+            cur.setAmount(cur.getAmount() + add);
+            inv.setItem(i, cur);
+            left -= add;
+            if (cur.getAmount() >= max) slots.pollFirst();
+        }
+
+        // Then fill empty slots
+        while (left > 0 && !empty.isEmpty()) {
+            int i = empty.pollFirst();
+            ItemStack cur = inv.getItem(i);
+            if (cur != null && !cur.getType().isAir()) continue;
+
+            int put = Math.min(left, max);
+            ItemStack placed = stack.clone();
+            placed.setAmount(put);
+            inv.setItem(i, placed);
+            left -= put;
+            if (put < max) {
+                partial.computeIfAbsent(stack.getType(), k -> new ArrayDeque<>()).addFirst(i);
+            }
+        }
+        return left;
+    }
+}
@@ -0,0 +1,50 @@
+package net.ppekkungz.essentialUtils.work;
+
+import net.ppekkungz.essentialUtils.features.TargetStream;
+import net.ppekkungz.essentialUtils.world.KeyBuffer;
+
+/**
+ * A job fed from a {@link TargetStream} while it runs: each tick, on the
+ * origin's region, the next batch of targets is found and queued, unless
+ * the job already has enough items queued to keep it busy. The job can't
+ * finish while it is still being fed.
+ *
+ * Only the stream's frontier and the items in flight are held at a time,
+ * instead of the whole tree or vein.
+ */
+public final class TargetFeed {
+
+    /**
+     * Turns found targets into work.
+     */
+    @FunctionalInterface
+    public interface Batcher {
+        /**
+         * Work for {@code targets}, the stream's targets from index
+         * {@code first} on, found {@code tick} ticks after the job started.
+         */
+        WorkBatch batch(KeyBuffer targets, int first, long tick);
+
+        /**
+         * Work to queue once every target is (e.g. a replant), or null.
+         */
+        default WorkBatch last(long tick) {
+            return null;
+        }
+    }
+
+    final Job job;
+    final TargetStream stream;
+    final Batcher batcher;
+
+    // Targets handed out so far, ticks since the job started and time spent scanning
+    int found;
+    long tick;
+    long collectNanos;
+
+    TargetFeed(Job job, TargetStream stream, Batcher batcher) {
+        this.job = job;
+        this.stream = stream;
+        this.batcher = batcher;
+    }
+}
@@ -0,0 +1,123 @@
+package net.ppekkungz.essentialUtils.work;
+
+import net.ppekkungz.essentialUtils.EssentialUtils;
+import net.ppekkungz.essentialUtils.config.PluginConfig;
+
+/**
+ * Feedback controller for the time-sliced work budget.
+ *
+ * Sampled once per tick from the global region scheduler. Uses AIMD on the
+ * per-tick work slice: shrinks it multiplicatively while the server runs
+ * over the target MSPT, and grows it additively while there is headroom.
+ * Also tracks the average cost of one work item so queues can estimate how
+ * much time they need.
+ */
+public class TickBudgetController {
+    private static final double TICK_MILLIS = 50.0;
+
+    // Shrink factor when the server is behind
+    private static final double DECREASE = 0.7;
+
+    // Only grow while below this fraction of the target MSPT
+    private static final double HEADROOM = 0.85;
+
+    // Number of additive steps from min to max slice
+    private static final int GROW_STEPS = 50;
+
+    // EWMA smoothing for tick intervals and item cost
+    private static final double SMOOTHING = 0.2;
+
+    private final EssentialUtils plugin;
+    private final PluginConfig cfg;
+
+    private volatile long sliceNanos;
+    private volatile double itemNanos = 50_000;
+
+    private long lastTickNanos;
+    private double intervalMillis = TICK_MILLIS;
+    private volatile double lastMspt = Double.NaN;
+
+    public TickBudgetController(EssentialUtils plugin, PluginConfig cfg) {
+        this.plugin = plugin;
+        this.cfg = cfg;
+        this.sliceNanos = cfg.minSliceNanos();
+    }
+
+    /**
+     * Sample the server and adjust the slice. Called once per tick.
+     */
+    public void onTick() {
+        long now = System.nanoTime();
+        if (lastTickNanos != 0) {
+            double interval = (now - lastTickNanos) / 1_000_000.0;
+            intervalMillis += (interval - intervalMillis) * SMOOTHING;
+        }
+        lastTickNanos = now;
+
+        double target = cfg.targetMspt();
+        double mspt = averageTickMillis();
+        lastMspt = mspt;
+
+        boolean behind;
+        boolean headroom;
+        if (Double.isNaN(mspt)) {
+            // No MSPT available - fall back to tick spacing only
+            behind = intervalMillis > TICK_MILLIS * 1.05;
+            headroom = !behind;
+        } else {
+            behind = mspt > target || intervalMillis > TICK_MILLIS * 1.05;
+            headroom = mspt < target * HEADROOM;
+        }
+
+        long min = cfg.minSliceNanos();
+        long max = Math.max(min, cfg.maxSliceNanos());
+        long next = sliceNanos;
+        if (behind) {
+            next = (long) (next * DECREASE);
+        } else if (headroom) {
+            next += Math.max(1, (max - min) / GROW_STEPS);
+        }
+        sliceNanos = Math.max(min, Math.min(max, next));
+    }
+
+    /**
+     * Record the time spent processing a batch of items.
+     */
+    public void recordItems(int items, long nanos) {
+        if (items <= 0) return;
+        double perItem = (double) nanos / items;
+        itemNanos += (perItem - itemNanos) * SMOOTHING;
+    }
+
+    /**
+     * Current server-wide work slice per tick, in nanoseconds.
+     */
+    public long sliceNanos() {
+        return sliceNanos;
+    }
+
+    /**
+     * Estimated time to process a number of items, in nanoseconds.
+     */
+    public long estimateNanos(int items) {
+        return (long) (items * itemNanos);
+    }
+
+    /**
+     * Last sampled MSPT, or NaN if the server doesn't report it.
+     */
+    public double lastMspt() {
+        return lastMspt;
+    }
+
+    /**
+     * Average tick time from Paper, or NaN if unsupported (e.g. some Folia builds).
+     */
+    private double averageTickMillis() {
+        try {
+            return plugin.getServer().getAverageTickTime();
+        } catch (Exception e) {
+            return Double.NaN;
+        }
+    }
+}
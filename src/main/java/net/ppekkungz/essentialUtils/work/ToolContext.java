@@ -0,0 +1,169 @@
+package net.ppekkungz.essentialUtils.work;
+
+import net.ppekkungz.essentialUtils.util.HarvestUtil;
+import org.bukkit.Material;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.bukkit.inventory.meta.Damageable;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The tool a job was started with, read once on the player's thread:
+ * material, tier, enchantments and durability left. Blocks are broken
+ * with these values instead of re-reading the held item's meta per block.
+ *
+ * Tool uses are only counted while the job runs. Their durability cost is
+ * sampled in bulk (Unbreaking included) and written back to the item at
+ * most once per tick, on the player's thread.
+ *
+ * If the held item changes mid-job, the job keeps this snapshot for drops
+ * and enchantments, so swapping tools can't change what it yields. Wear
+ * goes to the job's tool wherever it now is in the inventory, and is
+ * waived once it has left it. Whether the job is stopped is up to the
+ * preemption settings.
+ */
+public final class ToolContext {
+    // Copy of the item, for drop calculations
+    public final ItemStack item;
+    public final Material type;
+    public final int tier;
+    public final int fortune;
+    public final boolean silkTouch;
+    public final int unbreaking;
+
+    private final boolean damageable;
+    private final int maxDurability;
+
+    // Durability left before the tool would be down to its last point,
+    // as of the last write-back (player's thread only)
+    private volatile int durability;
+
+    // Uses not yet charged to the item
+    private final AtomicInteger uses = new AtomicInteger();
+
+    private ToolContext(ItemStack item, int fortune, boolean silkTouch, int unbreaking,
+                        boolean damageable, int maxDurability, int durability) {
+        this.item = item;
+        this.type = item.getType();
+        this.tier = HarvestUtil.toolTier(type);
+        this.fortune = fortune;
+        this.silkTouch = silkTouch;
+        this.unbreaking = unbreaking;
+        this.damageable = damageable;
+        this.maxDurability = maxDurability;
+        this.durability = durability;
+    }
+
+    /**
+     * Snapshot the held item. Player's thread only.
+     */
+    public static ToolContext of(ItemStack held) {
+        ItemStack item = held != null ? held.clone() : new ItemStack(Material.AIR);
+        if (item.getType().isAir()) {
+            return new ToolContext(item, 0, false, 0, false, 0, 0);
+        }
+
+        int max = item.getType().getMaxDurability();
+        boolean damageable = max > 0 && item.getItemMeta() instanceof Damageable;
+        int left = damageable ? max - 1 - ((Damageable) item.getItemMeta()).getDamage() : 0;
+        return new ToolContext(item,
+            item.getEnchantmentLevel(Enchantment.FORTUNE),
+            item.getEnchantmentLevel(Enchantment.SILK_TOUCH) > 0,
+            item.getEnchantmentLevel(Enchantment.UNBREAKING),
+            damageable, max, Math.max(0, left));
+    }
+
+    /**
+     * Count one use of the tool. Safe from any thread; returns true for the
+     * first use since the last write-back, which should schedule the next.
+     */
+    boolean use() {
+        return damageable && uses.getAndIncrement() == 0;
+    }
+
+    /**
+     * Charge the uses counted so far to the job's tool in the inventory, in
+     * one meta write, never taking it below 1 durability. The cost is taken
+     * from the item's actual damage, which the tracked durability is then
+     * synced to. If the tool has left the inventory, the uses are waived
+     * and the tracked durability is left alone. Player's thread only.
+     */
+    void chargeUses(PlayerInventory inv) {
+        int n = uses.getAndSet(0);
+        if (n == 0) return;
+
+        ItemStack stack = find(inv);
+        if (stack == null || !(stack.getItemMeta() instanceof Damageable dmg)) return;
+
+        int left = Math.max(0, maxDurability - 1 - dmg.getDamage());
+        int damage = Math.min(sampleDamage(n), left);
+        if (damage > 0) {
+            dmg.setDamage(dmg.getDamage() + damage);
+            stack.setItemMeta(dmg);
+        }
+        durability = left - damage;
+    }
+
+    /**
+     * True once the tool has no durability left to spend.
+     */
+    boolean isWorn() {
+        return damageable && durability == 0;
+    }
+
+    /**
+     * Whether an item is this job's tool: same material and enchantments.
+     */
+    boolean matches(ItemStack other) {
+        return other != null && other.getType() == type
+            && other.getEnchantmentLevel(Enchantment.FORTUNE) == fortune
+            && other.getEnchantmentLevel(Enchantment.SILK_TOUCH) > 0 == silkTouch
+            && other.getEnchantmentLevel(Enchantment.UNBREAKING) == unbreaking;
+    }
+
+    /**
+     * Find the job's tool in an inventory: the main hand if it matches,
+     * otherwise a matching stack still at the durability last charged, so
+     * a lookalike with other wear isn't mistaken for it. Returns null if
+     * it's no longer there.
+     */
+    ItemStack find(PlayerInventory inv) {
+        ItemStack hand = inv.getItemInMainHand();
+        if (matches(hand)) return hand;
+        int damage = maxDurability - 1 - durability;
+        for (ItemStack stack : inv.getStorageContents()) {
+            if (matches(stack) && stack.getItemMeta() instanceof Damageable dmg && dmg.getDamage() == damage) {
+                return stack;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Durability consumed by {@code n} uses. Each use costs a point with
+     * chance 1 / (Unbreaking + 1); large counts use the normal approximation
+     * of that binomial instead of rolling every use.
+     */
+    private int sampleDamage(int n) {
+        if (n <= 0) return 0;
+        if (unbreaking <= 0) return n;
+
+        double p = 1.0 / (unbreaking + 1);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (n < 32) {
+            int damage = 0;
+            for (int i = 0; i < n; i++) {
+                if (random.nextDouble() < p) damage++;
+            }
+            return damage;
+        }
+
+        double mean = n * p;
+        double sd = Math.sqrt(n * p * (1 - p));
+        long damage = Math.round(mean + sd * random.nextGaussian());
+        return (int) Math.max(0, Math.min(n, damage));
+    }
+}
@@ -9,6 +9,7 @@ import java.util.Map;
 /**
  * Tracks the results of a VeinMiner session for a player.
  * Used to generate actionbar summaries after mining completes.
+ * Mutators are synchronized since a vein may span several region threads.
  */
 public class VeinMineResult {
     private final Location originLocation;
@@ -28,14 +29,14 @@ public class VeinMineResult {
     /**
      * Record a mined block.
      */
-    public void addMinedBlock() {
+    public synchronized void addMinedBlock() {
         blocksMined++;
     }
     
     /**
      * Record drops from an ore.
      */
-    public void addDrops(Material dropType, int count) {
+    public synchronized void addDrops(Material dropType, int count) {
         totalDrops += count;
         dropCounts.merge(dropType, count, (a, b) -> a + b);
     }
@@ -43,24 +44,38 @@ public class VeinMineResult {
     /**
      * Record XP from an ore.
      */
-    public void addXP(int xp) {
+    public synchronized void addXP(int xp) {
         totalXP += xp;
     }
     
     /**
      * Set the fortune level used.
      */
-    public void setFortuneLevel(int level) {
+    public synchronized void setFortuneLevel(int level) {
         this.fortuneLevel = level;
     }
     
     /**
      * Mark that silk touch was used.
      */
-    public void setSilkTouch(boolean silkTouch) {
+    public synchronized void setSilkTouch(boolean silkTouch) {
         this.usedSilkTouch = silkTouch;
     }
     
+    /**
+     * Restore counters saved in the job journal.
+     */
+    synchronized void restore(int blocksMined, int totalXP, int fortuneLevel, boolean silkTouch,
+                              Map<Material, Integer> dropCounts) {
+        this.blocksMined = blocksMined;
+        this.totalXP = totalXP;
+        this.fortuneLevel = fortuneLevel;
+        this.usedSilkTouch = silkTouch;
+        this.dropCounts.clear();
+        this.dropCounts.putAll(dropCounts);
+        this.totalDrops = dropCounts.values().stream().mapToInt(Integer::intValue).sum();
+    }
+    
     // Getters
     
     public Location getOriginLocation() {
@@ -91,14 +106,14 @@ public class VeinMineResult {
         return usedSilkTouch;
     }
     
-    public Map<Material, Integer> getDropCounts() {
+    public synchronized Map<Material, Integer> getDropCounts() {
         return new HashMap<>(dropCounts);
     }
     
     /**
      * Get the primary drop material (the one with the most drops).
      */
-    public Material getPrimaryDrop() {
+    public synchronized Material getPrimaryDrop() {
         return dropCounts.entrySet().stream()
             .max(Map.Entry.comparingByValue())
             .map(Map.Entry::getKey)
@@ -128,7 +143,7 @@ public class VeinMineResult {
     /**
      * Reset for reuse.
      */
-    public void reset() {
+    public synchronized void reset() {
         blocksMined = 0;
         totalDrops = 0;
         totalXP = 0;
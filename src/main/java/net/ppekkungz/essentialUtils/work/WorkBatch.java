@@ -0,0 +1,114 @@
+package net.ppekkungz.essentialUtils.work;
+
+import org.bukkit.Material;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Items of one job collected by a producer before submitting them in bulk.
+ * Stored as parallel primitive arrays with the same layout as {@link WorkQueue}.
+ *
+ * Not thread-safe: fill it on one thread, then hand it to
+ * {@link WorkService#submit(Job, WorkBatch)} and stop touching it.
+ */
+public final class WorkBatch {
+    static final Material[] MATERIALS = Material.values();
+
+    long[] pos;
+    byte[] action;
+    byte[] flags;
+    short[] cooldown;
+    short[] retries;
+    // Material ordinal + 1, 0 for none
+    short[] plant;
+    int size;
+
+    public WorkBatch(int capacity) {
+        capacity = Math.max(4, capacity);
+        pos = new long[capacity];
+        action = new byte[capacity];
+        flags = new byte[capacity];
+        cooldown = new short[capacity];
+        retries = new short[capacity];
+        plant = new short[capacity];
+    }
+
+    /**
+     * Break a block (log, ore or crop).
+     */
+    public WorkBatch addBreak(long blockKey, int cooldownTicks) {
+        return add(blockKey, WorkItem.Action.BREAK, 0, cooldownTicks, 0, null);
+    }
+
+    /**
+     * Break a leaf; its drops are calculated instead of broken naturally.
+     */
+    public WorkBatch addLeaf(long blockKey, int cooldownTicks) {
+        return add(blockKey, WorkItem.Action.BREAK, WorkItem.LEAF, cooldownTicks, 0, null);
+    }
+
+    /**
+     * Plant a sapling after {@code cooldownTicks}, retrying while the spot
+     * isn't ready yet.
+     */
+    public WorkBatch addPlant(long blockKey, Material sapling, int cooldownTicks, int retries) {
+        return add(blockKey, WorkItem.Action.PLANT, 0, cooldownTicks, retries, sapling);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    WorkBatch add(long blockKey, WorkItem.Action a, int itemFlags, int cooldownTicks, int retryCount, Material plantType) {
+        if (size == pos.length) grow();
+        int i = size++;
+        pos[i] = blockKey;
+        action[i] = (byte) a.ordinal();
+        flags[i] = (byte) itemFlags;
+        cooldown[i] = (short) Math.min(Short.MAX_VALUE, Math.max(0, cooldownTicks));
+        retries[i] = (short) retryCount;
+        plant[i] = (short) (plantType == null ? 0 : plantType.ordinal() + 1);
+        return this;
+    }
+
+    /**
+     * Keep only the items whose index is set, preserving their order.
+     */
+    void retain(BitSet keep) {
+        int j = 0;
+        for (int i = keep.nextSetBit(0); i >= 0 && i < size; i = keep.nextSetBit(i + 1), j++) {
+            pos[j] = pos[i];
+            action[j] = action[i];
+            flags[j] = flags[i];
+            cooldown[j] = cooldown[i];
+            retries[j] = retries[i];
+            plant[j] = plant[i];
+        }
+        size = j;
+    }
+
+    /**
+     * Copy item {@code i} to the end of another batch.
+     */
+    void copyTo(int i, WorkBatch into) {
+        if (into.size == into.pos.length) into.grow();
+        int j = into.size++;
+        into.pos[j] = pos[i];
+        into.action[j] = action[i];
+        into.flags[j] = flags[i];
+        into.cooldown[j] = cooldown[i];
+        into.retries[j] = retries[i];
+        into.plant[j] = plant[i];
+    }
+
+    private void grow() {
+        int n = pos.length * 2;
+        pos = Arrays.copyOf(pos, n);
+        action = Arrays.copyOf(action, n);
+        flags = Arrays.copyOf(flags, n);
+        cooldown = Arrays.copyOf(cooldown, n);
+        retries = Arrays.copyOf(retries, n);
+        plant = Arrays.copyOf(plant, n);
+    }
+}
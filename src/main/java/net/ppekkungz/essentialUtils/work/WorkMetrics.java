@@ -0,0 +1,142 @@
+package net.ppekkungz.essentialUtils.work;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throughput counters and gauges of the work loop, per feature, plus
+ * per-feature latency histograms.
+ *
+ * Backed by striped {@link LongAdder}s, so region threads updating them
+ * concurrently don't contend; the work loop also batches its updates to
+ * one add per feature per tick. Nothing is summed until someone reads.
+ */
+public final class WorkMetrics {
+
+    /**
+     * What is measured. Counters only grow; gauges go up and down.
+     */
+    public enum Metric {
+        /** Items handled by the work loop */
+        PROCESSED("processed", false),
+        /** Items put back to try again later (e.g. a plant that couldn't go in yet) */
+        REQUEUED("requeued", false),
+        /** Items pushed back because their chunk wasn't loaded */
+        COOLDOWN_SKIPS("deferred", false),
+        /** Items dropped at submit because the player can't modify the block */
+        PROTECTION_DENIALS("denied", false),
+        /** Items queued and not yet done */
+        QUEUE_DEPTH("queued", true),
+        /** Jobs in flight */
+        ACTIVE_JOBS("jobs", true),
+        /** Breaks that started from a finished pre-scan */
+        PRESCAN_HITS("pre-scanned", false),
+        /** Breaks whose pre-scan was missing, unfinished or stale */
+        PRESCAN_MISSES("pre-scan misses", false);
+
+        public final String label;
+        public final boolean gauge;
+
+        Metric(String label, boolean gauge) {
+            this.label = label;
+            this.gauge = gauge;
+        }
+    }
+
+    /**
+     * Latencies tracked per feature.
+     */
+    public enum Timer {
+        /** Target collection when a job is triggered (off the tick in asyncScan mode) */
+        COLLECT("collect"),
+        /** Chunk snapshots taken on the tick for a background scan */
+        SNAPSHOT("snapshot"),
+        /** Trigger to the job's first block */
+        FIRST_BREAK("first break"),
+        /** Trigger to the job's summary */
+        COMPLETE("complete");
+
+        public final String label;
+
+        Timer(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final int FEATURES = WorkItem.FeatureTag.values().length;
+
+    private final LongAdder[] cells = new LongAdder[Metric.values().length * FEATURES];
+    private final LatencyHistogram[] timers = new LatencyHistogram[Timer.values().length * FEATURES];
+
+    // Time one partition spends in the work loop per tick (all features)
+    private final LatencyHistogram tickTime = new LatencyHistogram();
+
+    // Work loop time attributed to each feature by its share of a tick's items, since start
+    private final LongAdder[] attributed = new LongAdder[FEATURES];
+
+    public WorkMetrics() {
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = new LongAdder();
+        }
+        for (int i = 0; i < timers.length; i++) {
+            timers[i] = new LatencyHistogram();
+        }
+        for (int i = 0; i < FEATURES; i++) {
+            attributed[i] = new LongAdder();
+        }
+    }
+
+    void add(Metric m, WorkItem.FeatureTag feature, long n) {
+        if (n != 0) cells[m.ordinal() * FEATURES + feature.ordinal()].add(n);
+    }
+
+    void increment(Metric m, WorkItem.FeatureTag feature) {
+        cells[m.ordinal() * FEATURES + feature.ordinal()].increment();
+    }
+
+    /**
+     * Current value for one feature.
+     */
+    public long get(Metric m, WorkItem.FeatureTag feature) {
+        return cells[m.ordinal() * FEATURES + feature.ordinal()].sum();
+    }
+
+    /**
+     * Current value across all features.
+     */
+    public long total(Metric m) {
+        long sum = 0;
+        for (int f = 0; f < FEATURES; f++) {
+            sum += cells[m.ordinal() * FEATURES + f].sum();
+        }
+        return sum;
+    }
+
+    public void record(Timer t, WorkItem.FeatureTag feature, long nanos) {
+        timers[t.ordinal() * FEATURES + feature.ordinal()].recordNanos(nanos);
+    }
+
+    public LatencyHistogram timer(Timer t, WorkItem.FeatureTag feature) {
+        return timers[t.ordinal() * FEATURES + feature.ordinal()];
+    }
+
+    void recordTick(long nanos) {
+        tickTime.recordNanos(nanos);
+    }
+
+    public LatencyHistogram tickTime() {
+        return tickTime;
+    }
+
+    void attribute(WorkItem.FeatureTag feature, long nanos) {
+        if (nanos > 0) attributed[feature.ordinal()].add(nanos);
+    }
+
+    /**
+     * Work loop time spent on a feature since start, in nanoseconds. A tick
+     * shared by several features is split by their share of its items, so
+     * this is a total, not a latency.
+     */
+    public long attributedNanos(WorkItem.FeatureTag feature) {
+        return attributed[feature.ordinal()].sum();
+    }
+}
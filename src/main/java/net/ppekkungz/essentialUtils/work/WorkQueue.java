@@ -1,13 +1,477 @@
 package net.ppekkungz.essentialUtils.work;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
+import net.ppekkungz.essentialUtils.util.BlockUtil;
+import net.ppekkungz.essentialUtils.util.LongIntHashMap;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Per-partition work queue stored as parallel primitive arrays.
+ *
+ * An item is a slot index into the columns below (packed block position,
+ * action, flags, retries, plant material, due tick) plus a reference to its
+ * {@link Job} header. Slots are recycled through a free list, so once the
+ * arrays have grown, queuing a large job allocates nothing per block:
+ * section buckets are recycled too, and looked up through a primitive map.
+ *
+ * Items with a cooldown are parked in a hashed timing wheel keyed by due
+ * tick; {@link #advanceTo(long)} only visits the slots between the last and
+ * the current tick. Ready items are bucketed by chunk section and handed
+ * out one bucket at a time, so the caller can do chunk-level checks once
+ * per bucket (see {@link #sectionChanged()}). Wheel slots and buckets are
+ * linked lists threaded through the {@code next} column; the buckets
+ * themselves are ids into their own small columns.
+ *
+ * Not thread-safe: owned by a single partition thread.
+ */
 public class WorkQueue {
-    private final Deque<WorkItem> q = new ArrayDeque<>();
-    public void add(WorkItem wi) { q.addLast(wi); }
-    public WorkItem poll() { return q.pollFirst(); }
-    public int size() { return q.size(); }
-    public boolean isEmpty() { return q.isEmpty(); }
-    public void clear() { q.clear(); }
+    public static final int NONE = -1;
+
+    private static final int WHEEL_BITS = 8;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private static final WorkItem.Action[] ACTIONS = WorkItem.Action.values();
+
+    // ==================== COLUMNS ====================
+    private long[] pos;
+    private byte[] action;
+    private byte[] flags;
+    private short[] retries;
+    private short[] plant;
+    private long[] due;
+    private Job[] job;
+    private int[] next;
+
+    // Slots handed out so far, and recycled ones
+    private int used;
+    private int freeHead = NONE;
+
+    // ==================== TIMING WHEEL ====================
+    private final int[] wheelHead = new int[WHEEL_SIZE];
+    private final int[] wheelTail = new int[WHEEL_SIZE];
+
+    // Tick the wheel was last advanced to
+    private long now;
+    private int delayed;
+
+    // ==================== READY BUCKETS ====================
+    // Ready items per chunk section: head and tail slot, section key, and the
+    // next bucket in ready order (or in the spare list)
+    private int[] bucketHead = new int[8];
+    private int[] bucketTail = new int[8];
+    private long[] bucketSection = new long[8];
+    private int[] bucketNext = new int[8];
+    private int bucketsUsed;
+    private int spareBucket = NONE;
+
+    // Waiting buckets by section, and in the order sections first became ready
+    private final LongIntHashMap buckets = new LongIntHashMap(16);
+    private int orderHead = NONE;
+    private int orderTail = NONE;
+
+    // Bucket currently being drained (already off the map and the order list)
+    private int current = NONE;
+    private long currentSection;
+    private boolean sectionChanged;
+    // Report the current bucket as new on the next poll, e.g. on a new tick
+    private boolean recheck;
+    private int ready;
+
+    public WorkQueue() {
+        int n = 64;
+        pos = new long[n];
+        action = new byte[n];
+        flags = new byte[n];
+        retries = new short[n];
+        plant = new short[n];
+        due = new long[n];
+        job = new Job[n];
+        next = new int[n];
+        Arrays.fill(wheelHead, NONE);
+        Arrays.fill(wheelTail, NONE);
+    }
+
+    /**
+     * Add every item of a batch under one job header.
+     */
+    public void addAll(Job j, WorkBatch batch) {
+        for (int i = 0; i < batch.size; i++) {
+            int slot = alloc();
+            pos[slot] = batch.pos[i];
+            action[slot] = batch.action[i];
+            flags[slot] = batch.flags[i];
+            retries[slot] = batch.retries[i];
+            plant[slot] = batch.plant[i];
+            job[slot] = j;
+            schedule(slot, batch.cooldown[i]);
+        }
+    }
+
+    /**
+     * Add a single item, e.g. a follow-up queued while processing.
+     */
+    public void add(Job j, long blockKey, WorkItem.Action a, int cooldownTicks, int retryCount, Material plantType) {
+        int slot = alloc();
+        pos[slot] = blockKey;
+        action[slot] = (byte) a.ordinal();
+        flags[slot] = 0;
+        retries[slot] = (short) retryCount;
+        plant[slot] = (short) (plantType == null ? 0 : plantType.ordinal() + 1);
+        job[slot] = j;
+        schedule(slot, cooldownTicks);
+    }
+
+    /**
+     * Next ready slot, or {@link #NONE} if nothing is due.
+     * Drains the current section's bucket before starting the next one.
+     * The slot stays allocated until it is {@link #free freed} or {@link #delay delayed}.
+     */
+    public int poll() {
+        sectionChanged = recheck;
+        recheck = false;
+        if (current == NONE || bucketHead[current] == NONE) {
+            if (current != NONE) {
+                freeBucket(current);
+                current = NONE;
+            }
+            if (orderHead == NONE) return NONE;
+
+            current = orderHead;
+            orderHead = bucketNext[current];
+            if (orderHead == NONE) orderTail = NONE;
+            currentSection = bucketSection[current];
+            buckets.remove(currentSection);
+            sectionChanged = true;
+        }
+
+        int slot = bucketHead[current];
+        bucketHead[current] = next[slot];
+        if (bucketHead[current] == NONE) bucketTail[current] = NONE;
+        ready--;
+        return slot;
+    }
+
+    /**
+     * True if the last {@link #poll()} started a new section bucket, or was
+     * the first since {@link #recheckSection()}.
+     */
+    public boolean sectionChanged() {
+        return sectionChanged;
+    }
+
+    /**
+     * Have the next {@link #poll()} report a section change even if it
+     * continues the current bucket, so checks made once per bucket (such as
+     * whether its chunk is loaded) are made again. Call at the start of
+     * each tick: a bucket left over from the last one may have been unloaded
+     * since.
+     */
+    public void recheckSection() {
+        recheck = true;
+    }
+
+    /**
+     * Push the rest of the current section's bucket back onto the wheel.
+     * Returns the number of items deferred.
+     */
+    public int deferSection(int ticks) {
+        if (current == NONE || bucketHead[current] == NONE) return 0;
+        int slot = bucketHead[current];
+        bucketHead[current] = bucketTail[current] = NONE;
+
+        int n = 0;
+        while (slot != NONE) {
+            int following = next[slot];
+            ready--;
+            schedule(slot, Math.max(1, ticks));
+            slot = following;
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * Put a polled slot back on the wheel for {@code ticks} ticks.
+     */
+    public void delay(int slot, int ticks) {
+        schedule(slot, Math.max(1, ticks));
+    }
+
+    /**
+     * Delay a polled slot if it has retries left, using one up.
+     * Returns false (and leaves the slot to be freed) when out of retries.
+     */
+    public boolean retry(int slot, int ticks) {
+        if (retries[slot] <= 0) return false;
+        retries[slot]--;
+        delay(slot, ticks);
+        return true;
+    }
+
+    /**
+     * Release a polled slot that is done.
+     */
+    public void free(int slot) {
+        job[slot] = null;
+        next[slot] = freeHead;
+        freeHead = slot;
+    }
+
+    /**
+     * Drop every queued item of a job. Returns the number removed.
+     */
+    public int purge(Job j) {
+        int removed = 0;
+
+        for (int idx = 0; idx < WHEEL_SIZE; idx++) {
+            int slot = wheelHead[idx];
+            wheelHead[idx] = wheelTail[idx] = NONE;
+            while (slot != NONE) {
+                int following = next[slot];
+                if (job[slot] == j) {
+                    free(slot);
+                    delayed--;
+                    removed++;
+                } else {
+                    append(wheelHead, wheelTail, idx, slot);
+                }
+                slot = following;
+            }
+        }
+
+        if (current != NONE) {
+            removed += purge(current, j);
+        }
+        int b = orderHead;
+        int prev = NONE;
+        orderHead = orderTail = NONE;
+        while (b != NONE) {
+            int following = bucketNext[b];
+            removed += purge(b, j);
+            if (bucketHead[b] == NONE) {
+                buckets.remove(bucketSection[b]);
+                freeBucket(b);
+            } else {
+                bucketNext[b] = NONE;
+                if (prev == NONE) orderHead = b;
+                else bucketNext[prev] = b;
+                prev = b;
+                orderTail = b;
+            }
+            b = following;
+        }
+        return removed;
+    }
+
+    /**
+     * Distinct jobs with items in this queue.
+     */
+    public Set<Job> jobs() {
+        Set<Job> jobs = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < used; i++) {
+            if (job[i] != null) jobs.add(job[i]);
+        }
+        return jobs;
+    }
+
+    // ==================== ITEM ACCESS ====================
+
+    public Job job(int slot) { return job[slot]; }
+    public WorkItem.Action action(int slot) { return ACTIONS[action[slot]]; }
+    public boolean isLeaf(int slot) { return (flags[slot] & WorkItem.LEAF) != 0; }
+    public long blockKey(int slot) { return pos[slot]; }
+    /** Tick the slot was last scheduled for. */
+    public long due(int slot) { return due[slot]; }
+    public int chunkX(int slot) { return Block.getBlockKeyX(pos[slot]) >> 4; }
+    public int chunkZ(int slot) { return Block.getBlockKeyZ(pos[slot]) >> 4; }
+
+    public int x(int slot) { return Block.getBlockKeyX(pos[slot]); }
+    public int y(int slot) { return Block.getBlockKeyY(pos[slot]); }
+    public int z(int slot) { return Block.getBlockKeyZ(pos[slot]); }
+
+    public Material plant(int slot) {
+        int p = plant[slot];
+        return p == 0 ? null : WorkBatch.MATERIALS[p - 1];
+    }
+
+    // ==================== CLOCK ====================
+
+    /**
+     * Move every item due at or before {@code tick} to the ready buckets.
+     */
+    public void advanceTo(long tick) {
+        if (tick <= now) return;
+        if (delayed == 0) {
+            now = tick;
+            return;
+        }
+
+        // Visit each slot at most once, even after a long sleep
+        long steps = Math.min(tick - now, WHEEL_SIZE);
+        for (long t = tick - steps + 1; t <= tick; t++) {
+            expire((int) (t & WHEEL_MASK), tick);
+        }
+        now = tick;
+    }
+
+    /**
+     * Earliest tick at which an item will be ready, or {@link Long#MAX_VALUE} if none.
+     */
+    public long nextDueTick() {
+        if (ready > 0) return now;
+        if (delayed == 0) return Long.MAX_VALUE;
+
+        long best = Long.MAX_VALUE;
+        for (int i = 1; i <= WHEEL_SIZE; i++) {
+            for (int s = wheelHead[(int) ((now + i) & WHEEL_MASK)]; s != NONE; s = next[s]) {
+                if (due[s] < best) best = due[s];
+            }
+            // Later slots can't hold anything due sooner than this one
+            if (best <= now + i) break;
+        }
+        return best;
+    }
+
+    public int size() { return ready + delayed; }
+    public int readyCount() { return ready; }
+    public boolean isEmpty() { return ready == 0 && delayed == 0; }
+
+    // ==================== INTERNALS ====================
+
+    private void schedule(int slot, int ticks) {
+        if (ticks <= 0) {
+            due[slot] = now;
+            addReady(slot);
+            return;
+        }
+
+        due[slot] = now + ticks;
+        append(wheelHead, wheelTail, (int) (due[slot] & WHEEL_MASK), slot);
+        delayed++;
+    }
+
+    private void expire(int idx, long tick) {
+        int slot = wheelHead[idx];
+        if (slot == NONE) return;
+        wheelHead[idx] = wheelTail[idx] = NONE;
+
+        while (slot != NONE) {
+            int following = next[slot];
+            if (due[slot] <= tick) {
+                delayed--;
+                addReady(slot);
+            } else {
+                // Due on a later lap of the wheel
+                append(wheelHead, wheelTail, idx, slot);
+            }
+            slot = following;
+        }
+    }
+
+    private void addReady(int slot) {
+        long k = pos[slot];
+        long section = BlockUtil.sectionKey(Block.getBlockKeyX(k), Block.getBlockKeyY(k), Block.getBlockKeyZ(k));
+
+        int b;
+        if (current != NONE && section == currentSection) {
+            b = current;
+        } else {
+            b = buckets.get(section);
+            if (b == LongIntHashMap.MISSING) {
+                b = allocBucket(section);
+                buckets.put(section, b);
+            }
+        }
+
+        append(bucketHead, bucketTail, b, slot);
+        ready++;
+    }
+
+    /**
+     * A spare bucket for a section, appended to the ready order.
+     */
+    private int allocBucket(long section) {
+        int b;
+        if (spareBucket != NONE) {
+            b = spareBucket;
+            spareBucket = bucketNext[b];
+        } else {
+            if (bucketsUsed == bucketHead.length) {
+                int n = bucketsUsed * 2;
+                bucketHead = Arrays.copyOf(bucketHead, n);
+                bucketTail = Arrays.copyOf(bucketTail, n);
+                bucketSection = Arrays.copyOf(bucketSection, n);
+                bucketNext = Arrays.copyOf(bucketNext, n);
+            }
+            b = bucketsUsed++;
+        }
+        bucketHead[b] = bucketTail[b] = NONE;
+        bucketSection[b] = section;
+        bucketNext[b] = NONE;
+        if (orderTail == NONE) orderHead = b;
+        else bucketNext[orderTail] = b;
+        orderTail = b;
+        return b;
+    }
+
+    private void freeBucket(int b) {
+        bucketNext[b] = spareBucket;
+        spareBucket = b;
+    }
+
+    private int purge(int b, Job j) {
+        int removed = 0;
+        int slot = bucketHead[b];
+        bucketHead[b] = bucketTail[b] = NONE;
+        while (slot != NONE) {
+            int following = next[slot];
+            if (job[slot] == j) {
+                free(slot);
+                ready--;
+                removed++;
+            } else {
+                append(bucketHead, bucketTail, b, slot);
+            }
+            slot = following;
+        }
+        return removed;
+    }
+
+    private void append(int[] heads, int[] tails, int idx, int slot) {
+        next[slot] = NONE;
+        if (tails[idx] == NONE) {
+            heads[idx] = slot;
+        } else {
+            next[tails[idx]] = slot;
+        }
+        tails[idx] = slot;
+    }
+
+    private int alloc() {
+        if (freeHead != NONE) {
+            int slot = freeHead;
+            freeHead = next[slot];
+            return slot;
+        }
+        if (used == pos.length) grow();
+        return used++;
+    }
+
+    private void grow() {
+        int n = pos.length * 2;
+        pos = Arrays.copyOf(pos, n);
+        action = Arrays.copyOf(action, n);
+        flags = Arrays.copyOf(flags, n);
+        retries = Arrays.copyOf(retries, n);
+        plant = Arrays.copyOf(plant, n);
+        due = Arrays.copyOf(due, n);
+        job = Arrays.copyOf(job, n);
+        next = Arrays.copyOf(next, n);
+    }
 }
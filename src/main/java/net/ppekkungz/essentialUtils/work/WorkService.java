@@ -3,13 +3,19 @@ package net.ppekkungz.essentialUtils.work;
 import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
 import net.ppekkungz.essentialUtils.EssentialUtils;
 import net.ppekkungz.essentialUtils.config.PluginConfig;
+import net.ppekkungz.essentialUtils.event.JobCompleteEvent;
+import net.ppekkungz.essentialUtils.event.JobStartEvent;
+import net.ppekkungz.essentialUtils.features.TargetStream;
 import net.ppekkungz.essentialUtils.features.farm.AutoFarmFeature;
+import net.ppekkungz.essentialUtils.features.vein.VeinMineFeature;
 import net.ppekkungz.essentialUtils.indicator.ActionBarService;
-import net.ppekkungz.essentialUtils.state.PlayerState;
 import net.ppekkungz.essentialUtils.state.StateManager;
 import net.ppekkungz.essentialUtils.util.FortuneUtil;
 import net.ppekkungz.essentialUtils.util.LeafDropUtil;
+import net.ppekkungz.essentialUtils.util.MaterialIndex;
+import net.ppekkungz.essentialUtils.util.Materials;
 import net.ppekkungz.essentialUtils.util.Protection;
+import net.ppekkungz.essentialUtils.world.KeyBuffer;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.Particle;
@@ -17,146 +23,755 @@ import org.bukkit.block.Block;
 import org.bukkit.entity.ExperienceOrb;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.EnumMap;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
 
 /**
  * Folia-safe work processing service.
  * Handles block breaking, item drops, XP spawning, and replanting.
  */
 public class WorkService {
+    private static final int FEATURES = WorkItem.FeatureTag.values().length;
+
     private final EssentialUtils plugin;
     private final PluginConfig cfg;
     private final StateManager states;
     private final ActionBarService actionBar;
 
-    private final Map<UUID, WorkQueue> queues = new ConcurrentHashMap<>();
-    private final Map<UUID, ScheduledTask> loops = new ConcurrentHashMap<>();
+    private final TickBudgetController controller;
+    private final FairShareScheduler scheduler;
+
+    // Live partitions: one per (player, region section) with pending work
+    private final Map<RegionPartition.Key, RegionPartition> partitions = new ConcurrentHashMap<>();
+
+    // Crash-safe record of in-flight jobs (null when disabled)
+    private final JobJournal journal;
+
+    private final WorkMetrics metrics = new WorkMetrics();
+
+    // Background target scans (asyncScan mode)
+    private final ScanService scans;
 
     public WorkService(EssentialUtils plugin, PluginConfig cfg, StateManager states, ActionBarService actionBar) {
         this.plugin = plugin;
         this.cfg = cfg;
         this.states = states;
         this.actionBar = actionBar;
+        this.controller = new TickBudgetController(plugin, cfg);
+        this.scheduler = new FairShareScheduler(plugin, cfg, controller);
+        scheduler.start();
+        this.journal = openJournal();
+        this.scans = new ScanService(plugin, metrics);
+    }
+
+    private JobJournal openJournal() {
+        if (!cfg.journalEnabled()) return null;
+        try {
+            return new JobJournal(plugin.getDataFolder().toPath().resolve("jobs.journal"),
+                plugin.getLogger(), cfg.journalSyncMillis());
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to open the job journal; jobs won't survive a restart", e);
+            return null;
+        }
+    }
+
+    /**
+     * Queue a job's items.
+     * Items are split by region section and each part goes to that section's
+     * partition, whose loop runs on the RegionScheduler and is started on demand.
+     * A job can be submitted in several batches; it finishes once every
+     * submitted item is done.
+     * Must be called on the player's thread (the held tool is snapshotted),
+     * unless the tool was snapshotted when the job was triggered
+     * ({@link #submit(Job, WorkBatch, Held)}).
+     * Returns false if nothing was queued (all protected, or the job's
+     * {@link JobStartEvent} was cancelled).
+     */
+    public boolean submit(Job job, WorkBatch batch) {
+        if (batch.size() == 0 || job.isCancelled() || job.isFinished()) return false;
+
+        // Started with a tool held earlier: the player must still hold it
+        if (job.owner == null && job.tool != null && cfg.preemptOnToolSwitch()
+                && !job.tool.matches(job.player.getInventory().getItemInMainHand())) {
+            job.markCancelled(Job.CancelReason.TOOL_SWITCH);
+            return false;
+        }
+
+        if (!retainAllowed(job, batch)) return false;
+
+        // One event for the whole job instead of one per block
+        if (job.owner == null && job.journalId == 0
+                && !new JobStartEvent(job, batch.pos, batch.size()).callEvent()) {
+            return false;
+        }
+        if (journal != null) {
+            if (job.journalId == 0) journal.start(job, batch);
+            else journal.items(job, batch);
+        }
+        enqueue(job, batch);
+        return true;
+    }
+
+    /**
+     * Queue further items of a job already started, such as a stream's later
+     * batches. Nothing is read from the player, so this is safe on the
+     * region thread feeding the job. Returns false if nothing was queued.
+     */
+    private boolean enqueueMore(Job job, WorkBatch batch) {
+        if (batch.size() == 0 || job.isCancelled() || job.isFinished()) return false;
+        if (!retainAllowed(job, batch)) return false;
+
+        if (journal != null) journal.items(job, batch);
+        enqueue(job, batch);
+        return true;
+    }
+
+    /**
+     * Drop the items the player can't modify. Protection is checked once
+     * per batch, not on every poll. Returns false if none are left.
+     */
+    private boolean retainAllowed(Job job, WorkBatch batch) {
+        int submitted = batch.size();
+        batch.retain(Protection.allowed(job.player, job.world, batch.pos, batch.size()));
+        metrics.add(WorkMetrics.Metric.PROTECTION_DENIALS, job.feature, submitted - batch.size());
+        return batch.size() > 0;
+    }
+
+    /**
+     * Queue a job's first batch with what the player held when it was
+     * triggered instead of what they hold now, for jobs whose targets were
+     * found in the background. Safe off the player's thread; the job is
+     * cancelled ({@link Job.CancelReason#TOOL_SWITCH}) if the player no
+     * longer holds that tool.
+     */
+    public boolean submit(Job job, WorkBatch batch, Held held) {
+        if (job.owner == null && job.tool == null) {
+            job.tool = held.tool();
+            job.slots = held.slots();
+        }
+        return submit(job, batch);
+    }
+
+    /**
+     * What a job takes from the player when it is triggered: the held tool,
+     * and the inventory's free slots if its drops are delivered there.
+     */
+    public record Held(ToolContext tool, SlotIndex slots) {}
+
+    /**
+     * Snapshot the held tool (and slots) for a job submitted later with
+     * {@link #submit(Job, WorkBatch, Held)}. Player's thread only.
+     */
+    public Held held(Player p, WorkItem.FeatureTag feature) {
+        PlayerInventory inv = p.getInventory();
+        return new Held(ToolContext.of(inv.getItemInMainHand()),
+            deliversToInventory(feature) ? SlotIndex.of(inv) : null);
     }
 
-    public WorkQueue queue(Player p) {
-        return queues.computeIfAbsent(p.getUniqueId(), k -> new WorkQueue());
+    /**
+     * Queue a batch without journaling it (the tool is snapshotted on the
+     * job's first batch, unless it was when the job was triggered).
+     */
+    private void enqueue(Job job, WorkBatch batch) {
+        int shift = cfg.regionShift();
+        if (job.owner == null) {
+            job.owner = this;
+            if (job.tool == null) {
+                job.tool = ToolContext.of(job.player.getInventory().getItemInMainHand());
+                if (deliversToInventory(job.feature)) {
+                    job.slots = SlotIndex.of(job.player.getInventory());
+                }
+            }
+            track(job);
+        }
+        job.pending.addAndGet(batch.size());
+        metrics.add(WorkMetrics.Metric.QUEUE_DEPTH, job.feature, batch.size());
+
+        // Most jobs fit in one section - hand the batch over as-is
+        long first = batch.pos[0];
+        int rx = (Block.getBlockKeyX(first) >> 4) >> shift;
+        int rz = (Block.getBlockKeyZ(first) >> 4) >> shift;
+        boolean single = true;
+        for (int i = 1; i < batch.size() && single; i++) {
+            long k = batch.pos[i];
+            single = (Block.getBlockKeyX(k) >> 4) >> shift == rx && (Block.getBlockKeyZ(k) >> 4) >> shift == rz;
+        }
+        if (single) {
+            offer(job, RegionPartition.Key.of(job.player, job.world, first, shift), first, batch);
+            return;
+        }
+
+        Map<RegionPartition.Key, WorkBatch> split = new LinkedHashMap<>();
+        Map<RegionPartition.Key, Long> anchors = new HashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            long k = batch.pos[i];
+            RegionPartition.Key key = RegionPartition.Key.of(job.player, job.world, k, shift);
+            anchors.putIfAbsent(key, k);
+            batch.copyTo(i, split.computeIfAbsent(key, x -> new WorkBatch(16)));
+        }
+        split.forEach((key, part) -> offer(job, key, anchors.get(key), part));
+    }
+
+    /**
+     * Hand a batch to one partition, creating and starting it if needed.
+     */
+    private void offer(Job job, RegionPartition.Key key, long anchor, WorkBatch batch) {
+        Player p = job.player;
+        RegionPartition part = partitions.compute(key, (k, cur) -> {
+            if (cur == null) {
+                cur = new RegionPartition(k, p, job.world, anchor);
+            }
+            cur.offer(job, batch);
+            return cur;
+        });
+
+        if (part.markStarted()) {
+            startLoop(part);
+        } else if (part.sleeping && part.requestWake()) {
+            plugin.getServer().getRegionScheduler().execute(
+                plugin, part.world, part.chunkX, part.chunkZ, () -> wake(part));
+        }
+    }
+
+    // ==================== STREAMING ====================
+
+    /**
+     * Start a job whose targets are still being found: the stream's first
+     * batch is queued now, and the rest a batch per tick on the origin's
+     * region, holding back while the job has
+     * {@link PluginConfig#streamMaxAhead()} items queued. The job finishes
+     * once the stream is done and every item is.
+     * Must be called on the player's thread. Returns false if nothing was
+     * queued, or the stream was done with fewer than {@code minTargets}.
+     */
+    public boolean feed(Job job, TargetStream stream, TargetFeed.Batcher batcher, int minTargets) {
+        TargetFeed feed = new TargetFeed(job, stream, batcher);
+        long t0 = System.nanoTime();
+        KeyBuffer first = stream.next(cfg.streamBatchSize());
+        feed.collectNanos = System.nanoTime() - t0;
+
+        if (first.isEmpty() || (stream.isDone() && first.size() < minTargets)) {
+            metrics.record(WorkMetrics.Timer.COLLECT, job.feature, feed.collectNanos);
+            return false;
+        }
+        job.feeding = true;
+        if (!submit(job, batcher.batch(first, 0, 0))) {
+            job.feeding = false;
+            metrics.record(WorkMetrics.Timer.COLLECT, job.feature, feed.collectNanos);
+            return false;
+        }
+        feed.found = first.size();
+
+        if (stream.isDone()) {
+            endFeed(feed);
+        } else {
+            plugin.getServer().getRegionScheduler().runAtFixedRate(
+                plugin, job.origin, task -> feedTick(feed, task), 1L, 1L);
+        }
+        return true;
+    }
+
+    /**
+     * Find and queue a job's next batch of targets. Origin's region thread only.
+     */
+    private void feedTick(TargetFeed feed, ScheduledTask task) {
+        Job job = feed.job;
+        feed.tick++;
+        if (job.isFinished()) {
+            // Player left; what was queued is already settled
+            task.cancel();
+            return;
+        }
+        if (job.isCancelled()) {
+            endFeed(feed);
+            task.cancel();
+            return;
+        }
+
+        // Backpressure: let the queue catch up before finding more
+        if (job.pending.get() >= cfg.streamMaxAhead()) return;
+
+        long t0 = System.nanoTime();
+        KeyBuffer next = feed.stream.next(cfg.streamBatchSize());
+        feed.collectNanos += System.nanoTime() - t0;
+        if (!next.isEmpty()) {
+            enqueueMore(job, feed.batcher.batch(next, feed.found, feed.tick));
+            feed.found += next.size();
+        }
+
+        if (feed.stream.isDone()) {
+            endFeed(feed);
+            task.cancel();
+        }
     }
 
-    public void ensureLoop(Player p) {
-        loops.computeIfAbsent(p.getUniqueId(), id ->
-                p.getScheduler().runAtFixedRate(plugin, task -> tickPlayer(p), null, 1L, 1L)
-        );
+    /**
+     * Stop feeding a job, queue its last work and let it finish.
+     */
+    private void endFeed(TargetFeed feed) {
+        Job job = feed.job;
+        metrics.record(WorkMetrics.Timer.COLLECT, job.feature, feed.collectNanos);
+        if (!job.isCancelled()) {
+            WorkBatch last = feed.batcher.last(feed.tick);
+            if (last != null) enqueueMore(job, last);
+        }
+
+        job.feeding = false;
+        if (job.pending.get() == 0 && job.markFinished()) {
+            complete(job);
+        }
     }
 
+    /**
+     * Cancel all of a player's pending work (logout).
+     */
     public void stopLoop(Player p) {
-        ScheduledTask t = loops.remove(p.getUniqueId());
-        if (t != null) t.cancel();
-        queues.remove(p.getUniqueId());
+        UUID id = p.getUniqueId();
+        partitions.values().removeIf(part -> {
+            if (!part.key.player().equals(id)) return false;
+            part.cancel();
+            scheduler.release(part.key);
+            return true;
+        });
+
+        // Don't lose what was already broken
+        for (Job job : states.reset(p)) {
+            metrics.add(WorkMetrics.Metric.ACTIVE_JOBS, job.feature, -1);
+            if (job.markFinished()) {
+                // A tick already running elsewhere only settles what this leaves
+                metrics.add(WorkMetrics.Metric.QUEUE_DEPTH, job.feature, -job.pending.getAndSet(0));
+                spawnJobDrops(job, job.drops.drain(), false);
+                if (journal != null) journal.end(job);
+            }
+        }
+    }
+
+    /**
+     * Resume a player's jobs left unfinished by a crash or restart.
+     * Must be called on the player's thread.
+     */
+    public void resume(Player p) {
+        if (journal == null) return;
+        for (JobJournal.Recovered r : journal.takeParked(p)) {
+            Job job = r.toJob(p, plugin.getServer().getWorld(r.world));
+            if (job == null) {
+                journal.park(r);
+                continue;
+            }
+
+            WorkBatch batch = r.remaining();
+            if (r.cancelled != null || batch.size() == 0) {
+                // Nothing left to do - summarise and hand out what was collected
+                if (r.cancelled != null) job.markCancelled(r.cancelled);
+                track(job);
+                job.markFinished();
+                finishJob(job);
+                continue;
+            }
+
+            // Already journaled under the same id
+            enqueue(job, batch);
+        }
+    }
+
+    // ==================== CANCELLATION ====================
+
+    /**
+     * Stop a job early. Its remaining items are dropped on each partition's
+     * own region thread; partitions left empty retire right away, releasing
+     * their budget. What was already done is summarised as usual.
+     * Returns false if the job was already cancelled.
+     */
+    public boolean cancel(Job job, Job.CancelReason reason) {
+        if (!job.markCancelled(reason)) return false;
+        if (journal != null) journal.cancel(job, reason);
+
+        UUID id = job.player.getUniqueId();
+        for (RegionPartition part : partitions.values()) {
+            if (!part.key.player().equals(id)) continue;
+            plugin.getServer().getRegionScheduler().execute(
+                plugin, part.world, part.chunkX, part.chunkZ, () -> purge(part, job));
+        }
+        return true;
+    }
+
+    /**
+     * Preempt the player's jobs started with a different tool.
+     * Call on the player's thread after the held item changed.
+     */
+    public void onToolChanged(Player p, ItemStack held) {
+        if (!cfg.preemptOnToolSwitch()) return;
+
+        for (Job job : states.jobs(p)) {
+            if (job.tool != null && !job.tool.matches(held)) {
+                cancel(job, Job.CancelReason.TOOL_SWITCH);
+            }
+        }
+    }
+
+    /**
+     * Preempt the player's jobs they have walked away from.
+     * Call on the player's thread after they moved to another block.
+     */
+    public void onPlayerMoved(Player p, Location to) {
+        int max = cfg.preemptMaxDistance();
+        if (max <= 0) return;
+
+        for (Job job : states.jobs(p)) {
+            Location at = job.dropLocation;
+            if (at.getWorld() != to.getWorld() || at.distanceSquared(to) > (double) max * max) {
+                cancel(job, Job.CancelReason.MOVED_AWAY);
+            }
+        }
+    }
+
+    /**
+     * Drop a cancelled job's items from one partition. Region thread only.
+     */
+    private void purge(RegionPartition part, Job job) {
+        if (partitions.get(part.key) != part) return;
+
+        WorkQueue q = part.drain(scheduler.currentTick());
+        itemsDone(job, q.purge(job));
+        if (q.isEmpty()) {
+            retire(part);
+        }
     }
 
     public void shutdown() {
-        loops.values().forEach(ScheduledTask::cancel);
-        loops.clear();
-        queues.clear();
+        scans.shutdown();
+        partitions.values().forEach(RegionPartition::cancel);
+        partitions.clear();
+        scheduler.shutdown();
+
+        // Jobs still open stay journaled and resume on the next start
+        if (journal != null) journal.close();
+    }
+
+    /**
+     * Number of partitions currently sharing the global block budget.
+     */
+    public int activeQueues() {
+        return scheduler.activeQueues();
     }
 
-    private void tickPlayer(Player p) {
+    /**
+     * Per-feature throughput counters of the work loop.
+     */
+    public WorkMetrics metrics() {
+        return metrics;
+    }
+
+    public ScanService scans() {
+        return scans;
+    }
+
+    /**
+     * Feedback controller sizing the time-sliced budget.
+     */
+    public TickBudgetController controller() {
+        return controller;
+    }
+
+    /**
+     * Process one tick of a partition. Runs on the region thread that owns it.
+     */
+    private void tickPartition(RegionPartition part) {
+        Player p = part.player;
         if (!p.isOnline()) {
             stopLoop(p);
             return;
         }
-        
-        WorkQueue q = queue(p);
+
+        WorkQueue q = part.drain(scheduler.currentTick());
         if (q.isEmpty()) {
-            if (states.get(p) == PlayerState.ACTIVE) {
-                // Processing complete - show summaries and cleanup
-                finishProcessing(p);
-            }
+            retire(part);
             return;
         }
+        // The chunk checked last tick may have unloaded since
+        q.recheckSection();
 
-        final int budget = cfg.blocksPerTick();
-        EnumMap<WorkItem.FeatureTag, Integer> used = new EnumMap<>(WorkItem.FeatureTag.class);
-        for (WorkItem.FeatureTag t : WorkItem.FeatureTag.values()) {
-            used.put(t, 0);
+        // Give up on work in a region that can't keep up
+        if (regionLagging(part)) {
+            for (Job job : q.jobs()) {
+                cancel(job, Job.CancelReason.REGION_LAGGING);
+                itemsDone(job, q.purge(job));
+            }
+            retire(part);
+            return;
         }
 
+        // Fair share of the server-wide budget: blocks, or nanoseconds in time-sliced mode
+        final boolean timed = cfg.timeSlicedBudget();
+        final int due = q.readyCount();
+        final long budget = scheduler.acquire(part.key,
+            timed ? controller.estimateNanos(due) : due);
+        final long start = System.nanoTime();
+        // Per-feature tallies, added to the metrics once at the end of the tick
+        int[] used = new int[FEATURES];
+        int[] requeues = new int[FEATURES];
+        int[] deferred = new int[FEATURES];
+
         int processed = 0;
-        int guard = Math.max(64, q.size() * 2);
 
-        for (int i = 0; i < guard && processed < budget; i++) {
-            WorkItem wi = q.poll();
-            if (wi == null) break;
+        // Only items due this tick, one chunk section at a time; retries go back on the wheel
+        for (int i = 0; i < due; i++) {
+            if (timed ? System.nanoTime() - start >= budget : processed >= budget) break;
 
-            // Handle cooldown
-            if (wi.cooldownTicks > 0) {
-                wi.cooldownTicks--;
-                q.add(wi);
-                continue;
-            }
+            int slot = q.poll();
+            if (slot == WorkQueue.NONE) break;
 
-            Block b = wi.block;
-            
-            // Chunk check
-            if (cfg.requireChunkLoaded() && !b.getChunk().isLoaded()) {
-                wi.cooldownTicks = 5;
-                q.add(wi);
+            // Left over from a job cancelled since it was queued
+            if (q.job(slot).isCancelled()) {
+                done(q, slot, part);
                 continue;
             }
-            
-            // Protection check
-            if (!Protection.canModify(wi.player, b)) {
+
+            // Chunk check, once per section bucket
+            if (q.sectionChanged() && cfg.requireChunkLoaded()
+                    && !part.world.isChunkLoaded(q.chunkX(slot), q.chunkZ(slot))) {
+                q.delay(slot, 5);
+                int skipped = q.deferSection(5);
+                deferred[q.job(slot).feature.ordinal()] += 1 + skipped;
+                i += skipped;
                 continue;
             }
 
-            // Process the work item
-            switch (wi.action) {
-                case BREAK -> handleBreak(wi);
-                case PLANT -> handlePlant(wi, q);
-                case REPLANT -> handleReplant(wi, q);
+            Job job = q.job(slot);
+            if (!job.started.get() && job.started.compareAndSet(false, true)) {
+                metrics.record(WorkMetrics.Timer.FIRST_BREAK, job.feature, System.nanoTime() - job.createdNanos);
             }
 
-            used.put(wi.tag, used.getOrDefault(wi.tag, 0) + 1);
+            // Process the work item; handlers return true if they put it back
+            boolean requeued = switch (q.action(slot)) {
+                case BREAK -> handleBreak(q, slot, part);
+                case PLANT -> handlePlant(q, slot, part);
+                case REPLANT -> handleReplant(q, slot, part);
+            };
+            if (requeued) requeues[job.feature.ordinal()]++;
+            else done(q, slot, part);
+
+            used[job.feature.ordinal()]++;
             processed++;
         }
+
+        for (WorkItem.FeatureTag t : WorkItem.FeatureTag.values()) {
+            metrics.add(WorkMetrics.Metric.PROCESSED, t, used[t.ordinal()]);
+            metrics.add(WorkMetrics.Metric.REQUEUED, t, requeues[t.ordinal()]);
+            metrics.add(WorkMetrics.Metric.COOLDOWN_SKIPS, t, deferred[t.ordinal()]);
+        }
+
+        // Apply this tick's removals with physics deferred to the batch edge
+        part.bulk.flush();
+        if (journal != null) part.checkpoint(journal);
+
+        long elapsed = System.nanoTime() - start;
+        metrics.recordTick(elapsed);
+        attributeTickTime(elapsed, used, deferred);
+
+        long spent = processed;
+        if (timed) {
+            spent = elapsed;
+            controller.recordItems(processed, spent);
+        }
+        scheduler.complete(part.key, budget, spent, q.isEmpty());
+
+        // Nothing due for a while - stop ticking until the next item is
+        long wait = q.readyCount() == 0 && !q.isEmpty()
+            ? q.nextDueTick() - scheduler.currentTick()
+            : 0;
+        if (wait > 1) {
+            sleep(part, wait);
+        }
+    }
+
+    /**
+     * Split a partition tick's time between the features it worked on, by
+     * their share of the items handled or deferred.
+     */
+    private void attributeTickTime(long elapsed, int[] used, int[] deferred) {
+        int total = 0;
+        for (int f = 0; f < FEATURES; f++) {
+            total += used[f] + deferred[f];
+        }
+        if (total == 0) return;
+
+        for (WorkItem.FeatureTag t : WorkItem.FeatureTag.values()) {
+            int n = used[t.ordinal()] + deferred[t.ordinal()];
+            if (n > 0) metrics.attribute(t, elapsed * n / total);
+        }
+    }
+
+    /**
+     * Track the region's tick time through this partition's tick spacing and
+     * report whether it is below the configured minimum TPS.
+     */
+    private boolean regionLagging(RegionPartition part) {
+        long now = System.nanoTime();
+        long last = part.lastTickNanos;
+        part.lastTickNanos = now;
+        if (last == 0) return false;
+
+        part.tickMillis += ((now - last) / 1_000_000.0 - part.tickMillis) * 0.2;
+        double minTps = cfg.preemptMinRegionTps();
+        return minTps > 0 && part.tickMillis > 1000.0 / minTps;
+    }
+
+    /**
+     * Start a partition's per-tick loop on the region that owns it.
+     */
+    private void startLoop(RegionPartition part) {
+        part.lastTickNanos = 0;
+        part.setTask(plugin.getServer().getRegionScheduler().runAtFixedRate(
+            plugin, part.world, part.chunkX, part.chunkZ, task -> tickPartition(part), 1L, 1L));
+    }
+
+    /**
+     * Replace a partition's loop with a one-shot timer. Region thread only.
+     * The partition stops sharing the global budget while it sleeps.
+     */
+    private void sleep(RegionPartition part, long ticks) {
+        part.cancelTask();
+        scheduler.release(part.key);
+        part.sleeping = true;
+
+        // An item offered before the flag was visible won't request a wake
+        if (part.hasInbox()) {
+            part.sleeping = false;
+            startLoop(part);
+            return;
+        }
+
+        part.setTask(plugin.getServer().getRegionScheduler().runDelayed(
+            plugin, part.world, part.chunkX, part.chunkZ, task -> wake(part), ticks));
+    }
+
+    /**
+     * Resume a sleeping partition, either on its timer or because new work
+     * arrived. Region thread only.
+     */
+    private void wake(RegionPartition part) {
+        part.clearWakeRequest();
+        if (!part.sleeping || partitions.get(part.key) != part) return;
+
+        part.sleeping = false;
+        part.cancelTask();
+        startLoop(part);
+    }
+
+    /**
+     * Register a job as running.
+     */
+    private void track(Job job) {
+        states.addJob(job);
+        metrics.increment(WorkMetrics.Metric.ACTIVE_JOBS, job.feature);
+    }
+
+    /**
+     * Unregister a finished job (no-op if it already was).
+     */
+    private void untrack(Job job) {
+        if (states.removeJob(job)) {
+            metrics.add(WorkMetrics.Metric.ACTIVE_JOBS, job.feature, -1);
+        }
+    }
+
+    /**
+     * Free a slot whose item is done and count it against its job.
+     */
+    private void done(WorkQueue q, int slot, RegionPartition part) {
+        Job job = q.job(slot);
+        if (journal != null) part.progress(job).done(q.blockKey(slot), q.action(slot));
+        q.free(slot);
+        itemsDone(job, 1);
+    }
+
+    /**
+     * Count items of a job as done. When the last one is, completion is
+     * handed to the player's own thread. Jobs finish independently of each
+     * other and of the partitions their items went through.
+     */
+    private void itemsDone(Job job, int n) {
+        if (n == 0) return;
+
+        // Never below zero: a logout may have settled the job's items already
+        int before;
+        int settled;
+        do {
+            before = job.pending.get();
+            settled = Math.min(n, before);
+        } while (!job.pending.compareAndSet(before, before - settled));
+        metrics.add(WorkMetrics.Metric.QUEUE_DEPTH, job.feature, -settled);
+
+        if (before - settled > 0 || job.feeding || !job.markFinished()) return;
+        complete(job);
+    }
+
+    /**
+     * Hand a job whose completion was claimed to the player's thread.
+     */
+    private void complete(Job job) {
+        job.player.getScheduler().run(plugin, task -> finishJob(job), () -> {
+            // Player gone - still drop what was collected
+            spawnJobDrops(job, job.drops.drain(), false);
+            untrack(job);
+            if (journal != null) journal.end(job);
+        });
+    }
+
+    /**
+     * Remove a drained partition and release its budget.
+     */
+    private void retire(RegionPartition part) {
+        boolean[] removed = {false};
+        partitions.computeIfPresent(part.key, (k, cur) -> {
+            if (cur != part || !part.isIdle()) return cur;
+            removed[0] = true;
+            return null;
+        });
+        if (!removed[0]) return;
+
+        part.cancel();
+        scheduler.release(part.key);
     }
 
     /**
      * Handle block breaking based on feature type.
      */
-    private void handleBreak(WorkItem wi) {
-        Block b = wi.block;
-        Player p = wi.player;
+    private boolean handleBreak(WorkQueue q, int slot, RegionPartition part) {
+        Material type = part.source.type(q.x(slot), q.y(slot), q.z(slot));
+        if (type.isAir() || part.bulk.contains(q.blockKey(slot))) return false;
+        if (!isStillTarget(q.job(slot), type)) return false;
         
-        if (b.getType().isAir()) return;
-        
-        switch (wi.tag) {
-            case TREE -> handleTreeBreak(wi);
-            case VEIN -> handleVeinBreak(wi);
-            case FARM -> handleFarmBreak(wi);
-            default -> b.breakNaturally(p.getInventory().getItemInMainHand(), true);
+        switch (q.job(slot).feature) {
+            case TREE -> handleTreeBreak(q, slot, type, part);
+            case VEIN -> handleVeinBreak(q, slot, type, part);
+            case FARM -> handleFarmBreak(q, slot, type, part);
+            default -> breakNaturally(q, slot, type, part);
         }
+        return false;
     }
 
     /**
      * Handle tree block breaking (logs and leaves).
      */
-    private void handleTreeBreak(WorkItem wi) {
-        Block b = wi.block;
-        Player p = wi.player;
-        
-        LeafDropUtil.TreeFellerResult result = states.getTreeFellerResult(p);
+    private void handleTreeBreak(WorkQueue q, int slot, Material type, RegionPartition part) {
+        Job job = q.job(slot);
+        LeafDropUtil.TreeFellerResult result = job.treeResult;
         
-        if (wi.isLeaf) {
+        if (q.isLeaf(slot)) {
             // Get tree type for drop calculations
-            Material logType = states.getTreeFellerLogType(p);
+            Material logType = job.logType;
             LeafDropUtil.TreeType treeType = logType != null 
                 ? LeafDropUtil.getTreeTypeFromLog(logType) 
                 : LeafDropUtil.TreeType.OAK;
@@ -168,36 +783,33 @@ public class WorkService {
             
             // Break the leaf silently (drops calculated above)
             // Note: Leaves don't damage axes in vanilla Minecraft
-            b.setType(Material.AIR);
+            removeBlock(q, slot, part, List.of(), null);
         } else {
             // Log - break naturally and damage tool
-            b.breakNaturally(p.getInventory().getItemInMainHand(), true);
+            breakNaturally(q, slot, type, part);
             if (result != null) {
                 result.addLog();
             }
             // breakNaturally doesn't damage the tool, we need to do it manually
-            damageToolSlightly(p);
+            useTool(job);
         }
     }
 
     /**
      * Handle ore breaking with Fortune/Silk Touch.
      */
-    private void handleVeinBreak(WorkItem wi) {
-        Block b = wi.block;
-        Player p = wi.player;
-        ItemStack tool = p.getInventory().getItemInMainHand();
-        Material oreType = b.getType();
+    private void handleVeinBreak(WorkQueue q, int slot, Material oreType, RegionPartition part) {
+        Job job = q.job(slot);
+        ToolContext tool = job.tool;
         
-        VeinMineResult result = states.getVeinMineResult(p);
+        VeinMineResult result = job.veinResult;
         
-        boolean silkTouch = FortuneUtil.hasSilkTouch(tool);
-        int fortuneLevel = FortuneUtil.getFortuneLevel(tool);
+        boolean silkTouch = tool.silkTouch;
+        int fortuneLevel = tool.fortune;
         
         if (silkTouch && cfg.veinMinerSilkTouchDropsOre()) {
             // Silk Touch: drop the ore block itself
-            b.setType(Material.AIR);
-            b.getWorld().dropItemNaturally(b.getLocation().add(0.5, 0.5, 0.5), new ItemStack(oreType, 1));
+            removeBlock(q, slot, part, List.of(new ItemStack(oreType, 1)), null);
             
             if (result != null) {
                 result.addMinedBlock();
@@ -213,10 +825,8 @@ public class WorkService {
             int xp = FortuneUtil.getOreXP(oreType);
             
             // Break block and drop items
-            b.setType(Material.AIR);
-            if (dropCount > 0) {
-                b.getWorld().dropItemNaturally(b.getLocation().add(0.5, 0.5, 0.5), new ItemStack(dropType, dropCount));
-            }
+            removeBlock(q, slot, part,
+                dropCount > 0 ? List.of(new ItemStack(dropType, dropCount)) : List.of(), null);
             
             if (result != null) {
                 result.addMinedBlock();
@@ -227,98 +837,144 @@ public class WorkService {
         }
         
         // Damage tool
-        damageToolSlightly(p);
+        useTool(job);
+    }
+
+    /**
+     * Remove a block with the given drops and break effect (null for none).
+     * Drops go to the job's collector when coalescing, and the removal to
+     * the partition's bulk batch when enabled.
+     */
+    private void removeBlock(WorkQueue q, int slot, RegionPartition part, Collection<ItemStack> drops, Material effect) {
+        Job job = q.job(slot);
+        if (cfg.coalesceDrops() || job.slots != null) {
+            job.drops.addAll(drops);
+            if (journal != null) part.progress(job).drops.addAll(drops);
+            drops = List.of();
+        }
+        if (cfg.bulkApply()) {
+            part.bulk.remove(q.blockKey(slot), drops, effect);
+            return;
+        }
+
+        int x = q.x(slot), y = q.y(slot), z = q.z(slot);
+        part.sink.setType(x, y, z, Material.AIR, true);
+        if (effect != null) {
+            part.sink.breakEffect(x, y, z, effect);
+        }
+        for (ItemStack drop : drops) {
+            part.sink.drop(x, y, z, drop);
+        }
+    }
+
+    /**
+     * Break a block with the job's tool: its own drops and break effect.
+     */
+    private void breakNaturally(WorkQueue q, int slot, Material type, RegionPartition part) {
+        Collection<ItemStack> drops = part.source.drops(q.x(slot), q.y(slot), q.z(slot), q.job(slot).tool.item);
+        removeBlock(q, slot, part, drops, type);
     }
 
     /**
      * Handle crop breaking with auto-replant.
      */
-    private void handleFarmBreak(WorkItem wi) {
-        Block b = wi.block;
-        Player p = wi.player;
-        Material cropType = b.getType();
+    private void handleFarmBreak(WorkQueue q, int slot, Material cropType, RegionPartition part) {
+        Job job = q.job(slot);
         
-        // Break naturally
+        // Break naturally (drops go to the job when coalescing)
         // Note: Hoes don't take damage when breaking crops in vanilla
-        // (only when tilling soil), so we don't call damageToolSlightly here
-        b.breakNaturally(p.getInventory().getItemInMainHand(), true);
+        // (only when tilling soil), so we don't call damageTool here
+        breakNaturally(q, slot, cropType, part);
         
-        // Queue replant if enabled
+        // Queue replant for next tick if enabled (same block, so same partition)
         if (cfg.autoFarmReplant() && AutoFarmFeature.canReplant(cropType)) {
-            WorkItem replant = WorkItem.replantCrop(p, b, cropType);
-            queue(p).add(replant);
+            job.pending.incrementAndGet();
+            metrics.increment(WorkMetrics.Metric.QUEUE_DEPTH, job.feature);
+            q.add(job, q.blockKey(slot), WorkItem.Action.REPLANT, 1, 3, cropType);
+            if (journal != null) {
+                journal.items(job, new WorkBatch(1).add(q.blockKey(slot), WorkItem.Action.REPLANT, 0, 1, 3, cropType));
+            }
         }
     }
 
     /**
      * Handle sapling planting with particles.
      */
-    private void handlePlant(WorkItem wi, WorkQueue q) {
-        Block airPos = wi.block;
-        
-        if (airPos.getType().isAir()) {
-            Block soil = airPos.getRelative(0, -1, 0);
-            if (isValidTreeSoil(soil.getType())) {
-                    airPos.setType(wi.plantType, true);
+    private boolean handlePlant(WorkQueue q, int slot, RegionPartition part) {
+        int x = q.x(slot), y = q.y(slot), z = q.z(slot);
+        if (part.source.type(x, y, z).isAir()) {
+            if (isValidTreeSoil(part.source.type(x, y - 1, z))) {
+                part.sink.setType(x, y, z, q.plant(slot), true);
                 
                 // Spawn green sparkle particles
                 if (cfg.treeFellerParticles()) {
-                    Location loc = airPos.getLocation().add(0.5, 0.5, 0.5);
-                    airPos.getWorld().spawnParticle(Particle.HAPPY_VILLAGER, loc, 10, 0.3, 0.3, 0.3, 0);
+                    Location loc = new Location(part.world, x + 0.5, y + 0.5, z + 0.5);
+                    part.world.spawnParticle(Particle.HAPPY_VILLAGER, loc, 10, 0.3, 0.3, 0.3, 0);
                 }
-                return;
+                return false;
             }
         }
         
         // Retry if not planted
-        if (wi.retries > 0) {
-            wi.retries--;
-            wi.cooldownTicks = 5;
-            q.add(wi);
-        }
+        return q.retry(slot, 5);
     }
 
     /**
      * Handle crop replanting.
      */
-    private void handleReplant(WorkItem wi, WorkQueue q) {
-        Block pos = wi.block;
+    private boolean handleReplant(WorkQueue q, int slot, RegionPartition part) {
+        Material cropType = q.plant(slot);
+        int x = q.x(slot), y = q.y(slot), z = q.z(slot);
         
-        if (pos.getType().isAir()) {
-            Block soil = pos.getRelative(0, -1, 0);
-            Material seedCrop = AutoFarmFeature.getCropBlock(AutoFarmFeature.getSeed(wi.plantType));
+        if (part.source.type(x, y, z).isAir()) {
+            Material seedCrop = AutoFarmFeature.getCropBlock(AutoFarmFeature.getSeed(cropType));
             
-            if (seedCrop != null && isValidFarmSoil(soil.getType(), wi.plantType)) {
-                pos.setType(seedCrop, true);
-                return;
+            if (seedCrop != null && isValidFarmSoil(part.source.type(x, y - 1, z), cropType)) {
+                part.sink.setType(x, y, z, seedCrop, true);
+                return false;
             }
         }
         
         // Retry if not planted
-        if (wi.retries > 0) {
-            wi.retries--;
-            wi.cooldownTicks = 2;
-            q.add(wi);
-        }
+        return q.retry(slot, 2);
     }
 
     /**
-     * Called when all work items are processed.
+     * Called on the player's thread when all of a job's items are done.
      */
-    private void finishProcessing(Player p) {
+    private void finishJob(Job job) {
+        Player p = job.player;
+        if (!job.isCancelled()) {
+            metrics.record(WorkMetrics.Timer.COMPLETE, job.feature, System.nanoTime() - job.createdNanos);
+        }
+
+        // Calculated leaf drops go with the job's other drops
+        LeafDropUtil.TreeFellerResult treeResult = job.treeResult;
+        if (treeResult != null && treeResult.logs > 0) {
+            LeafDropUtil.TreeType treeType = job.logType != null 
+                ? LeafDropUtil.getTreeTypeFromLog(job.logType) 
+                : LeafDropUtil.TreeType.OAK;
+            job.drops.addAll(treeResult.toItemStacks(treeType));
+        }
+        
+        // Let other plugins see (and adjust) the final tallies once per job
+        VeinMineResult veinResult = job.veinResult;
+        JobCompleteEvent event = new JobCompleteEvent(job, job.drops.drain(),
+            veinResult != null ? veinResult.getTotalXP() : 0);
+        event.callEvent();
+        
+        // Spawn XP at origin location (on the region that owns it)
+        int xp = event.getExperience();
+        if (xp > 0) {
+            Location orbLoc = job.origin.clone().add(0.5, 0.5, 0.5);
+            plugin.getServer().getRegionScheduler().execute(plugin, orbLoc, () ->
+                orbLoc.getWorld().spawn(orbLoc, ExperienceOrb.class, orb -> {
+                    orb.setExperience(xp);
+                }));
+        }
+        
         // Handle VeinMiner completion
-        VeinMineResult veinResult = states.endVeinMine(p);
         if (veinResult != null && veinResult.hasData()) {
-            // Spawn XP at origin location
-            if (veinResult.getTotalXP() > 0) {
-                Location loc = veinResult.getOriginLocation();
-                if (loc != null && loc.getWorld() != null) {
-                    loc.getWorld().spawn(loc.add(0.5, 0.5, 0.5), ExperienceOrb.class, orb -> {
-                        orb.setExperience(veinResult.getTotalXP());
-                    });
-                }
-            }
-            
             // Show actionbar summary
             if (cfg.veinMinerShowSummary()) {
                 String msg = formatVeinMinerSummary(veinResult);
@@ -327,21 +983,7 @@ public class WorkService {
         }
         
         // Handle TreeFeller completion
-        LeafDropUtil.TreeFellerResult treeResult = states.endTreeFeller(p);
         if (treeResult != null && treeResult.logs > 0) {
-            Material logType = states.getTreeFellerLogType(p);
-            Location stumpLoc = states.getTreeFellerStumpLocation(p);
-            LeafDropUtil.TreeType treeType = logType != null 
-                ? LeafDropUtil.getTreeTypeFromLog(logType) 
-                : LeafDropUtil.TreeType.OAK;
-            
-            // Drop calculated items at stump location
-            if (stumpLoc != null) {
-                for (ItemStack drop : treeResult.toItemStacks(treeType)) {
-                    stumpLoc.getWorld().dropItemNaturally(stumpLoc.add(0.5, 1, 0.5), drop);
-                }
-            }
-            
             // Show summary
             if (cfg.treeFellerShowSummary()) {
                 String msg = formatTreeFellerSummary(treeResult);
@@ -349,8 +991,66 @@ public class WorkService {
             }
         }
         
-        states.set(p, PlayerState.IDLE);
-        stopLoop(p);
+        // Collected block drops, as full stacks or into the inventory
+        spawnJobDrops(job, event.getDrops(), true);
+        
+        untrack(job);
+        if (journal != null) journal.end(job);
+    }
+
+    /**
+     * Spawn a finished job's drops at its drop location (on the region that
+     * owns it). Jobs delivering to the inventory go there instead when
+     * {@code onPlayerThread}.
+     */
+    private void spawnJobDrops(Job job, List<ItemStack> stacks, boolean onPlayerThread) {
+        if (stacks.isEmpty()) return;
+        if (onPlayerThread && job.slots != null) {
+            deliverToInventory(job.player, job.slots, stacks);
+            return;
+        }
+
+        Location loc = job.dropLocation;
+        plugin.getServer().getRegionScheduler().execute(plugin, loc, () -> {
+            for (ItemStack stack : stacks) {
+                loc.getWorld().dropItemNaturally(loc, stack);
+            }
+        });
+    }
+
+    /**
+     * Put drops into the player's inventory using the job's slot index.
+     * Whatever doesn't fit drops at the player's feet as full stacks.
+     * Player's thread only.
+     */
+    private void deliverToInventory(Player p, SlotIndex slots, List<ItemStack> stacks) {
+        PlayerInventory inv = p.getInventory();
+        List<ItemStack> overflow = new ArrayList<>();
+        for (ItemStack stack : stacks) {
+            int left = slots.deliver(inv, stack);
+            if (left <= 0) continue;
+
+            // Slots freed since the job started aren't indexed
+            ItemStack rest = stack.clone();
+            rest.setAmount(left);
+            overflow.addAll(inv.addItem(rest).values());
+        }
+
+        for (ItemStack stack : DropCollector.consolidate(overflow)) {
+            p.getWorld().dropItemNaturally(p.getLocation(), stack);
+        }
+    }
+
+    /**
+     * Whether a feature's drops go straight to the player's inventory.
+     */
+    private boolean deliversToInventory(WorkItem.FeatureTag feature) {
+        return switch (feature) {
+            case TREE -> cfg.treeFellerDeliverToInventory();
+            case VEIN -> cfg.veinMinerDeliverToInventory();
+            case FARM -> cfg.autoFarmDeliverToInventory();
+            default -> false;
+        };
     }
 
     /**
@@ -412,6 +1112,20 @@ public class WorkService {
         return sb.toString();
     }
 
+    /**
+     * Check if a block is still the kind its job set out to break.
+     */
+    private boolean isStillTarget(Job job, Material type) {
+        // The block may have changed since the scan: items are staggered,
+        // and background scans read a snapshot
+        return switch (job.feature) {
+            case TREE -> Materials.isLog(type, true) || MaterialIndex.isLeaf(type);
+            case VEIN -> VeinMineFeature.isOre(type);
+            case FARM -> AutoFarmFeature.isCrop(type);
+            default -> true;
+        };
+    }
+
     /**
      * Check if material is valid soil for trees.
      */
@@ -436,46 +1150,29 @@ public class WorkService {
     }
 
     /**
-     * Damage tool with proper Unbreaking enchantment handling.
-     * 
-     * Unbreaking mechanics (for tools, not armor):
-     * - Chance to consume durability = 1 / (unbreaking_level + 1)
-     * - Unbreaking I: 50% chance
-     * - Unbreaking II: 33.3% chance  
-     * - Unbreaking III: 25% chance
+     * Count a use of the job's tool. The first use since the last write-back
+     * schedules the next one on the player's thread, so uses from every
+     * partition of the job are charged together, about once per tick.
      */
-    private void damageToolSlightly(Player p) {
-        ItemStack tool = p.getInventory().getItemInMainHand();
-        if (tool == null || tool.getType().isAir()) return;
-        
-        // Check if tool can be damaged
-        if (!(tool.getItemMeta() instanceof org.bukkit.inventory.meta.Damageable dmg)) {
-            return;
-        }
-        
-        // Get Unbreaking level
-        int unbreakingLevel = tool.getEnchantmentLevel(org.bukkit.enchantments.Enchantment.UNBREAKING);
-        
-        // Calculate if durability should be consumed
-        // Formula: 1 / (unbreaking_level + 1) chance to consume
-        if (unbreakingLevel > 0) {
-            double chance = 1.0 / (unbreakingLevel + 1);
-            if (Math.random() >= chance) {
-                // Unbreaking saved the durability!
-                return;
-            }
+    private void useTool(Job job) {
+        if (job.tool.use()) {
+            job.player.getScheduler().run(plugin, task -> applyToolWear(job), null);
         }
-        
-        // Check if tool would break
-        int maxDurability = tool.getType().getMaxDurability();
-        if (dmg.getDamage() >= maxDurability - 1) {
-            // Tool is about to break - stop processing to prevent loss
-            return;
+    }
+
+    /**
+     * Charge a job's counted tool uses to its item in one meta write, with
+     * Unbreaking applied in bulk. Player's thread only.
+     *
+     * The tool is never taken below 1 durability; a job whose tool gets
+     * there is stopped if configured.
+     */
+    private void applyToolWear(Job job) {
+        ToolContext tool = job.tool;
+        tool.chargeUses(job.player.getInventory());
+
+        if (tool.isWorn() && cfg.preemptOnToolWorn()) {
+            cancel(job, Job.CancelReason.TOOL_WORN);
         }
-        
-        // Apply damage
-        dmg.setDamage(dmg.getDamage() + 1);
-        tool.setItemMeta(dmg);
     }
 }
-
@@ -0,0 +1,26 @@
+package net.ppekkungz.essentialUtils.world;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * Write access to blocks by position: block changes and where their
+ * drops go. The counterpart of {@link BlockSource}.
+ */
+public interface BlockSink {
+
+    /**
+     * Set a block's type, with or without physics updates to its neighbours.
+     */
+    void setType(int x, int y, int z, Material type, boolean physics);
+
+    /**
+     * Show the break effect of a block type at a position.
+     */
+    void breakEffect(int x, int y, int z, Material type);
+
+    /**
+     * Drop an item where a block stood.
+     */
+    void drop(int x, int y, int z, ItemStack item);
+}
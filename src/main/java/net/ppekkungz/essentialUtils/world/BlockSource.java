@@ -0,0 +1,44 @@
+package net.ppekkungz.essentialUtils.world;
+
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Collection;
+
+/**
+ * Read access to blocks by position: what the feature scans and work
+ * handlers need to know about a block, and nothing more, so they can run
+ * against a live world or an in-memory one.
+ *
+ * Positions are plain coordinates or Paper block keys
+ * ({@link Block#getBlockKey(int, int, int)}).
+ */
+public interface BlockSource {
+
+    Material type(int x, int y, int z);
+
+    /**
+     * Growth stage of an ageable block (crops, berry bushes), -1 if none.
+     */
+    int age(int x, int y, int z);
+
+    /**
+     * Final growth stage of an ageable block, -1 if none.
+     */
+    int maxAge(int x, int y, int z);
+
+    /**
+     * True for leaves placed by a player, which never decay.
+     */
+    boolean isPersistentLeaf(int x, int y, int z);
+
+    /**
+     * Items the block would drop if broken with {@code tool}.
+     */
+    Collection<ItemStack> drops(int x, int y, int z, ItemStack tool);
+
+    default Material type(long key) {
+        return type(Block.getBlockKeyX(key), Block.getBlockKeyY(key), Block.getBlockKeyZ(key));
+    }
+}
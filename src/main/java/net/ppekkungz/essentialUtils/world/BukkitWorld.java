@@ -0,0 +1,81 @@
+package net.ppekkungz.essentialUtils.world;
+
+import org.bukkit.Effect;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.data.Ageable;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.block.data.type.Leaves;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Collection;
+
+/**
+ * {@link BlockSource} and {@link BlockSink} over a live world.
+ *
+ * Reads go through the world's positional getters, so no {@link
+ * org.bukkit.block.Block} is created per lookup. Like any block access on
+ * Folia, calls must come from the thread owning the position's region.
+ */
+public final class BukkitWorld implements BlockSource, BlockSink {
+    private final World world;
+
+    public BukkitWorld(World world) {
+        this.world = world;
+    }
+
+    public World world() {
+        return world;
+    }
+
+    // ==================== SOURCE ====================
+
+    @Override
+    public Material type(int x, int y, int z) {
+        return world.getType(x, y, z);
+    }
+
+    @Override
+    public int age(int x, int y, int z) {
+        BlockData data = world.getBlockData(x, y, z);
+        return data instanceof Ageable a ? a.getAge() : -1;
+    }
+
+    @Override
+    public int maxAge(int x, int y, int z) {
+        BlockData data = world.getBlockData(x, y, z);
+        return data instanceof Ageable a ? a.getMaximumAge() : -1;
+    }
+
+    @Override
+    public boolean isPersistentLeaf(int x, int y, int z) {
+        return world.getBlockData(x, y, z) instanceof Leaves leaves && leaves.isPersistent();
+    }
+
+    @Override
+    public Collection<ItemStack> drops(int x, int y, int z, ItemStack tool) {
+        return world.getBlockAt(x, y, z).getDrops(tool);
+    }
+
+    // ==================== SINK ====================
+
+    @Override
+    public void setType(int x, int y, int z, Material type, boolean physics) {
+        world.getBlockAt(x, y, z).setType(type, physics);
+    }
+
+    @Override
+    public void breakEffect(int x, int y, int z, Material type) {
+        world.playEffect(center(x, y, z), Effect.STEP_SOUND, type);
+    }
+
+    @Override
+    public void drop(int x, int y, int z, ItemStack item) {
+        world.dropItemNaturally(center(x, y, z), item);
+    }
+
+    private Location center(int x, int y, int z) {
+        return new Location(world, x + 0.5, y + 0.5, z + 0.5);
+    }
+}
@@ -0,0 +1,192 @@
+package net.ppekkungz.essentialUtils.world;
+
+import net.ppekkungz.essentialUtils.util.LongHashSet;
+import net.ppekkungz.essentialUtils.util.LongRing;
+import org.bukkit.block.Block;
+
+/**
+ * Breadth-first flood fill over block keys, shared by the block scans.
+ *
+ * Found blocks are appended to a {@link KeyBuffer} in visiting order; the
+ * frontier is a ring of block keys and the visited set a primitive hash
+ * set, both kept per thread and reused, so a scan only allocates for the
+ * buffer it returns. Neighbours come from a precomputed offset table for
+ * the chosen {@link Connectivity}.
+ *
+ * A fill can also be resumed across calls ({@link #detached}, {@link #step}),
+ * handing its blocks over a batch at a time: the caller takes what is in
+ * the buffer and clears it between steps.
+ *
+ * Only blocks that pass the test are marked visited, so a later pass in
+ * the same fill (say leaves after logs) still sees the blocks an earlier
+ * pass rejected.
+ *
+ * <pre>
+ * KeyBuffer out = new KeyBuffer();
+ * FloodFill fill = FloodFill.begin(world, out);
+ * fill.add(origin);
+ * fill.run(Connectivity.CORNERS, (w, x, y, z) -> w.type(x, y, z) == ore, limit);
+ * fill.end();
+ * </pre>
+ */
+public final class FloodFill {
+
+    /**
+     * Which neighbours count as connected.
+     */
+    public enum Connectivity {
+        /** 6 neighbours sharing a face. */
+        FACES(1),
+        /** 18 neighbours sharing a face or an edge. */
+        EDGES(2),
+        /** All 26 neighbours in the 3×3×3 cube. */
+        CORNERS(3);
+
+        final int[] dx, dy, dz;
+
+        Connectivity(int maxAxes) {
+            int n = maxAxes == 1 ? 6 : maxAxes == 2 ? 18 : 26;
+            dx = new int[n];
+            dy = new int[n];
+            dz = new int[n];
+            // Same order as BlockUtil.neighbors27, so scans visit blocks as before
+            int i = 0;
+            for (int x = -1; x <= 1; x++)
+                for (int y = -1; y <= 1; y++)
+                    for (int z = -1; z <= 1; z++) {
+                        int axes = Math.abs(x) + Math.abs(y) + Math.abs(z);
+                        if (axes == 0 || axes > maxAxes) continue;
+                        dx[i] = x;
+                        dy[i] = y;
+                        dz[i] = z;
+                        i++;
+                    }
+        }
+
+        public int size() {
+            return dx.length;
+        }
+    }
+
+    /**
+     * Whether a block belongs to the fill.
+     */
+    @FunctionalInterface
+    public interface Test {
+        boolean test(BlockSource world, int x, int y, int z);
+    }
+
+    private static final ThreadLocal<FloodFill> LOCAL = ThreadLocal.withInitial(FloodFill::new);
+
+    private final LongHashSet visited = new LongHashSet(512);
+    private final LongRing frontier = new LongRing(128);
+    private BlockSource world;
+    private KeyBuffer out;
+    // Blocks collected since begin, including any taken out of the buffer
+    private int found;
+
+    private FloodFill() {}
+
+    /**
+     * Start a fill on this thread's instance, collecting into {@code out}.
+     * Not reentrant: a {@link Test} must not start another fill.
+     */
+    public static FloodFill begin(BlockSource world, KeyBuffer out) {
+        FloodFill fill = LOCAL.get();
+        fill.visited.clear();
+        fill.frontier.clear();
+        fill.world = world;
+        fill.out = out;
+        fill.found = out.size();
+        return fill;
+    }
+
+    /**
+     * Start a fill of its own rather than this thread's, for one resumed
+     * across calls (possibly on different threads, one at a time).
+     */
+    public static FloodFill detached(BlockSource world, KeyBuffer out) {
+        FloodFill fill = new FloodFill();
+        fill.world = world;
+        fill.out = out;
+        fill.found = out.size();
+        return fill;
+    }
+
+    /**
+     * Drop the references to the world and buffer.
+     */
+    public void end() {
+        world = null;
+        out = null;
+    }
+
+    /**
+     * Mark a block visited without collecting it. Returns false if it
+     * already was.
+     */
+    public boolean visit(long key) {
+        return visited.add(key);
+    }
+
+    public boolean visited(long key) {
+        return visited.contains(key);
+    }
+
+    /**
+     * Blocks collected so far, including those already taken out of the buffer.
+     */
+    public int found() {
+        return found;
+    }
+
+    /**
+     * Collect a block and queue it for expansion, unless already visited.
+     */
+    public boolean add(long key) {
+        if (!visited.add(key)) return false;
+        out.add(key);
+        frontier.add(key);
+        found++;
+        return true;
+    }
+
+    /**
+     * Collect the unvisited neighbours of a block that pass the test, while
+     * fewer than {@code limit} blocks have been found.
+     */
+    public void spread(long from, Connectivity c, Test test, int limit) {
+        int x = Block.getBlockKeyX(from), y = Block.getBlockKeyY(from), z = Block.getBlockKeyZ(from);
+        int[] dx = c.dx, dy = c.dy, dz = c.dz;
+        for (int i = 0; i < dx.length && found < limit; i++) {
+            int nx = x + dx[i], ny = y + dy[i], nz = z + dz[i];
+            long key = Block.getBlockKey(nx, ny, nz);
+            if (visited.contains(key) || !test.test(world, nx, ny, nz)) continue;
+            visited.add(key);
+            out.add(key);
+            frontier.add(key);
+            found++;
+        }
+    }
+
+    /**
+     * Expand the queued blocks until the frontier is empty or {@code limit}
+     * blocks have been found.
+     */
+    public void run(Connectivity c, Test test, int limit) {
+        step(c, test, limit, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Like {@link #run}, but also stop once the buffer holds {@code batch}
+     * blocks (checked between expansions, so it may hold a few more).
+     * Returns false once the fill is exhausted or at its limit.
+     */
+    public boolean step(Connectivity c, Test test, int limit, int batch) {
+        while (!frontier.isEmpty() && found < limit) {
+            if (out.size() >= batch) return true;
+            spread(frontier.poll(), c, test, limit);
+        }
+        return false;
+    }
+}
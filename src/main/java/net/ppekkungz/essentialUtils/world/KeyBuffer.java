@@ -0,0 +1,70 @@
+package net.ppekkungz.essentialUtils.world;
+
+import org.bukkit.block.Block;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Growable list of block keys ({@link Block#getBlockKey}) in insertion
+ * order: the compact form of a scan result, one long per block.
+ */
+public final class KeyBuffer {
+    private static final long[] EMPTY = new long[0];
+
+    private long[] keys;
+    private int size;
+
+    public KeyBuffer() {
+        this(16);
+    }
+
+    public KeyBuffer(int capacity) {
+        keys = capacity == 0 ? EMPTY : new long[capacity];
+    }
+
+    public static KeyBuffer empty() {
+        return new KeyBuffer(0);
+    }
+
+    public void add(long key) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, Math.max(16, size * 2));
+        }
+        keys[size++] = key;
+    }
+
+    public long get(int i) {
+        return keys[i];
+    }
+
+    public int x(int i) { return Block.getBlockKeyX(keys[i]); }
+    public int y(int i) { return Block.getBlockKeyY(keys[i]); }
+    public int z(int i) { return Block.getBlockKeyZ(keys[i]); }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    /**
+     * Empty the buffer, keeping its capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    public long[] toArray() {
+        return Arrays.copyOf(keys, size);
+    }
+
+    /**
+     * The keys as a set in the same order, for callers that want one.
+     */
+    public Set<Long> toSet() {
+        Set<Long> set = new LinkedHashSet<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            set.add(keys[i]);
+        }
+        return set;
+    }
+}
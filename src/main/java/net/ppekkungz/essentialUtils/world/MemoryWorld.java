@@ -0,0 +1,184 @@
+package net.ppekkungz.essentialUtils.world;
+
+import net.ppekkungz.essentialUtils.util.MaterialIndex;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Array-backed world of a fixed box, for running the scans and work
+ * handlers without a server (benchmarks, load simulations, correctness
+ * checks). Each block is a material plus one byte of state: its growth
+ * age, or the persistent flag of a leaf.
+ *
+ * Outside the box reads as air and ignores writes. Loot tables need a
+ * server, so {@link #drops} is always empty; items dropped into the world
+ * are kept for inspection. Not thread-safe.
+ */
+public final class MemoryWorld implements BlockSource, BlockSink {
+    private static final Material[] MATERIALS = Material.values();
+    private static final short AIR = (short) Material.AIR.ordinal();
+    private static final byte PERSISTENT = -1;
+
+    public final int minX, minY, minZ;
+    public final int sizeX, sizeY, sizeZ;
+
+    // Material ordinals and state, x fastest then z then y
+    private final short[] types;
+    private final byte[] state;
+
+    private final List<ItemStack> dropped = new ArrayList<>();
+    private long writes;
+
+    public MemoryWorld(int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.types = new short[Math.multiplyExact(Math.multiplyExact(sizeX, sizeY), sizeZ)];
+        this.state = new byte[types.length];
+        Arrays.fill(types, AIR);
+    }
+
+    // ==================== EDITING ====================
+
+    /**
+     * Place a block, clearing its state. Doesn't count as a write.
+     */
+    public void set(int x, int y, int z, Material type) {
+        int i = index(x, y, z);
+        if (i < 0) return;
+        types[i] = (short) type.ordinal();
+        state[i] = 0;
+    }
+
+    /**
+     * Place an ageable block at the given growth stage.
+     */
+    public void setAged(int x, int y, int z, Material type, int age) {
+        set(x, y, z, type);
+        int i = index(x, y, z);
+        if (i >= 0) state[i] = (byte) age;
+    }
+
+    /**
+     * Place leaves a player put down, which scans must not take.
+     */
+    public void setPersistentLeaf(int x, int y, int z, Material type) {
+        set(x, y, z, type);
+        int i = index(x, y, z);
+        if (i >= 0) state[i] = PERSISTENT;
+    }
+
+    /**
+     * Fill a box (inclusive corners) with one material.
+     */
+    public void fill(int x1, int y1, int z1, int x2, int y2, int z2, Material type) {
+        for (int y = Math.min(y1, y2); y <= Math.max(y1, y2); y++)
+            for (int z = Math.min(z1, z2); z <= Math.max(z1, z2); z++)
+                for (int x = Math.min(x1, x2); x <= Math.max(x1, x2); x++)
+                    set(x, y, z, type);
+    }
+
+    // ==================== SOURCE ====================
+
+    @Override
+    public Material type(int x, int y, int z) {
+        int i = index(x, y, z);
+        return i < 0 ? Material.AIR : MATERIALS[types[i]];
+    }
+
+    @Override
+    public int age(int x, int y, int z) {
+        int i = index(x, y, z);
+        return i < 0 || maxAge(MATERIALS[types[i]]) < 0 ? -1 : state[i];
+    }
+
+    @Override
+    public int maxAge(int x, int y, int z) {
+        return maxAge(type(x, y, z));
+    }
+
+    @Override
+    public boolean isPersistentLeaf(int x, int y, int z) {
+        int i = index(x, y, z);
+        return i >= 0 && state[i] == PERSISTENT && MaterialIndex.isLeaf(MATERIALS[types[i]]);
+    }
+
+    @Override
+    public Collection<ItemStack> drops(int x, int y, int z, ItemStack tool) {
+        return List.of();
+    }
+
+    // ==================== SINK ====================
+
+    @Override
+    public void setType(int x, int y, int z, Material type, boolean physics) {
+        int i = index(x, y, z);
+        if (i < 0) return;
+        types[i] = (short) type.ordinal();
+        state[i] = 0;
+        writes++;
+    }
+
+    @Override
+    public void breakEffect(int x, int y, int z, Material type) {
+    }
+
+    @Override
+    public void drop(int x, int y, int z, ItemStack item) {
+        dropped.add(item);
+    }
+
+    // ==================== INSPECTION ====================
+
+    /**
+     * Blocks changed through {@link #setType} so far.
+     */
+    public long writes() {
+        return writes;
+    }
+
+    public List<ItemStack> dropped() {
+        return Collections.unmodifiableList(dropped);
+    }
+
+    /**
+     * Blocks of a material in the whole box.
+     */
+    public int count(Material type) {
+        short t = (short) type.ordinal();
+        int n = 0;
+        for (short s : types) {
+            if (s == t) n++;
+        }
+        return n;
+    }
+
+    /**
+     * Final growth stage of the ageable blocks the plugin deals with.
+     */
+    static int maxAge(Material type) {
+        return switch (type) {
+            case WHEAT, CARROTS, POTATOES, MELON_STEM, PUMPKIN_STEM -> 7;
+            case BEETROOTS, NETHER_WART, SWEET_BERRY_BUSH -> 3;
+            case COCOA -> 2;
+            default -> -1;
+        };
+    }
+
+    private int index(int x, int y, int z) {
+        x -= minX;
+        y -= minY;
+        z -= minZ;
+        if (x < 0 || y < 0 || z < 0 || x >= sizeX || y >= sizeY || z >= sizeZ) return -1;
+        return (y * sizeZ + z) * sizeX + x;
+    }
+}
@@ -0,0 +1,100 @@
+package net.ppekkungz.essentialUtils.world;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.data.Ageable;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.block.data.type.Leaves;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Read-only {@link BlockSource} over {@link ChunkSnapshot}s of a square of
+ * chunks, so a scan can run on any thread once they are captured.
+ *
+ * Chunks that weren't loaded, or (on Folia) belonged to another region when
+ * captured, read as air, so scans stop at them. Loot tables need the live
+ * block, so {@link #drops} is always empty.
+ */
+public final class SnapshotWorld implements BlockSource {
+    private final int minChunkX, minChunkZ, width;
+    private final int minY, maxY;
+    // Row-major by chunk Z then X; null where nothing was captured
+    private final ChunkSnapshot[] chunks;
+
+    private SnapshotWorld(int minChunkX, int minChunkZ, int width, int minY, int maxY) {
+        this.minChunkX = minChunkX;
+        this.minChunkZ = minChunkZ;
+        this.width = width;
+        this.minY = minY;
+        this.maxY = maxY;
+        this.chunks = new ChunkSnapshot[width * width];
+    }
+
+    /**
+     * Capture the chunks within {@code chunkRadius} of the chunk holding a
+     * block. Must run on the thread owning that block's region.
+     */
+    public static SnapshotWorld capture(World world, int x, int z, int chunkRadius) {
+        int cx = x >> 4, cz = z >> 4;
+        int width = chunkRadius * 2 + 1;
+        SnapshotWorld snap = new SnapshotWorld(cx - chunkRadius, cz - chunkRadius, width,
+            world.getMinHeight(), world.getMaxHeight());
+
+        for (int dz = 0; dz < width; dz++) {
+            for (int dx = 0; dx < width; dx++) {
+                int chunkX = snap.minChunkX + dx, chunkZ = snap.minChunkZ + dz;
+                if (!world.isChunkLoaded(chunkX, chunkZ) || !Bukkit.isOwnedByCurrentRegion(world, chunkX, chunkZ)) {
+                    continue;
+                }
+                // Block types and data only; no heightmap or biomes
+                snap.chunks[dz * width + dx] = world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, false, false);
+            }
+        }
+        return snap;
+    }
+
+    // ==================== SOURCE ====================
+
+    @Override
+    public Material type(int x, int y, int z) {
+        ChunkSnapshot chunk = chunk(x, y, z);
+        return chunk == null ? Material.AIR : chunk.getBlockType(x & 15, y, z & 15);
+    }
+
+    @Override
+    public int age(int x, int y, int z) {
+        return data(x, y, z) instanceof Ageable a ? a.getAge() : -1;
+    }
+
+    @Override
+    public int maxAge(int x, int y, int z) {
+        return data(x, y, z) instanceof Ageable a ? a.getMaximumAge() : -1;
+    }
+
+    @Override
+    public boolean isPersistentLeaf(int x, int y, int z) {
+        return data(x, y, z) instanceof Leaves leaves && leaves.isPersistent();
+    }
+
+    @Override
+    public Collection<ItemStack> drops(int x, int y, int z, ItemStack tool) {
+        return List.of();
+    }
+
+    private BlockData data(int x, int y, int z) {
+        ChunkSnapshot chunk = chunk(x, y, z);
+        return chunk == null ? null : chunk.getBlockData(x & 15, y, z & 15);
+    }
+
+    private ChunkSnapshot chunk(int x, int y, int z) {
+        if (y < minY || y >= maxY) return null;
+        int dx = (x >> 4) - minChunkX, dz = (z >> 4) - minChunkZ;
+        if (dx < 0 || dz < 0 || dx >= width || dz >= width) return null;
+        return chunks[dz * width + dx];
+    }
+}